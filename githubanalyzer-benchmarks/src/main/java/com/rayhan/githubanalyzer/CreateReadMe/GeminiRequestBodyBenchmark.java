@@ -0,0 +1,55 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import com.rayhan.githubanalyzer.AnalyzerMetrics;
+import com.rayhan.githubanalyzer.Fixtures;
+import com.rayhan.githubanalyzer.HttpClientFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a finished prompt into the generateContent request body. Prompts run up to the token
+ * budget, so the JSON string escaping of a few hundred KB of source code is what is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class GeminiRequestBodyBenchmark {
+
+    @Param({"50", "1000"})
+    public int files;
+
+    @Param("")
+    public String snapshot;
+
+    private HttpClientFactory httpClients;
+    private ReadMeService readMeService;
+    private String prompt;
+
+    @Setup
+    public void setUp() {
+        httpClients = new HttpClientFactory(new StandardEnvironment());
+        readMeService = new ReadMeService("benchmark-key", "gemini-2.0-flash",
+                "https://generativelanguage.googleapis.com/v1beta/models/", WebClient.builder(), httpClients,
+                new AnalyzerMetrics(new SimpleMeterRegistry()));
+        prompt = new ReadMePromptBuilder(200000).buildRepoPrompt(
+                ReadMeAnalysisService.repoOverviewInstructions(), Fixtures.repoSnapshot(snapshot, files, 42));
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpClients.close();
+    }
+
+    @Benchmark
+    public String buildRequestBody() throws IOException {
+        return readMeService.buildRequestBody(prompt);
+    }
+}
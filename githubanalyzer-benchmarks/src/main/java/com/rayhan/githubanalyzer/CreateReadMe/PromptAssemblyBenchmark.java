@@ -0,0 +1,67 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import com.rayhan.githubanalyzer.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the Gemini prompt from fetched files: ranking, fitting the token budget and writing the
+ * final string. The small snapshot fits the default budget, the large one has to be truncated and
+ * elided. The profile variant spreads the same files over several repositories.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PromptAssemblyBenchmark {
+
+    private static final int PROFILE_REPOS = 8;
+
+    @Param({"50", "1000"})
+    public int files;
+
+    @Param("")
+    public String snapshot;
+
+    @Param("200000")
+    public int tokenBudget;
+
+    private ReadMePromptBuilder promptBuilder;
+    private String instructions;
+    private Map<String, String> repo;
+    private Map<String, Map<String, String>> profile;
+
+    @Setup
+    public void setUp() {
+        // The builder logs every time the budget is reached, keep that out of the measurement
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        promptBuilder = new ReadMePromptBuilder(tokenBudget);
+        instructions = ReadMeAnalysisService.repoOverviewInstructions();
+        repo = Fixtures.repoSnapshot(snapshot, files, 42);
+
+        profile = new LinkedHashMap<>();
+        int index = 0;
+        for (Map.Entry<String, String> file : repo.entrySet()) {
+            profile.computeIfAbsent("repo-" + (index++ % PROFILE_REPOS), name -> new LinkedHashMap<>())
+                    .put(file.getKey(), file.getValue());
+        }
+    }
+
+    @Benchmark
+    public String buildRepoPrompt() {
+        return promptBuilder.buildRepoPrompt(instructions, repo);
+    }
+
+    @Benchmark
+    public String buildProfilePrompt() {
+        return promptBuilder.buildMultiRepoPrompt(instructions, profile);
+    }
+}
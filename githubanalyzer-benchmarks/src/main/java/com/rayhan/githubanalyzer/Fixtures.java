@@ -0,0 +1,251 @@
+package com.rayhan.githubanalyzer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Fixture data for the benchmarks. Repository snapshots are either read from a local checkout or
+ * generated with a fixed seed, so two runs of the same benchmark always see the same input.
+ *
+ * Generated snapshots mimic a mid-sized Spring/Python/JS codebase: nested packages, file sizes that
+ * are mostly a few KB with a long tail of large files, and the usual mix of controllers, services,
+ * entities and tests.
+ */
+public final class Fixtures {
+
+    private static final List<String> SNAPSHOT_EXTENSIONS = List.of("java", "py", "js", "cpp", "c", "ipynb", "php");
+
+    private static final String[] PACKAGES = {"api", "config", "domain", "persistence", "service", "util", "web", "security"};
+    private static final String[] KINDS = {"Controller", "Service", "Repository", "Entity", "Config", "Mapper", "Handler", "Dto", "Test"};
+    private static final String[] WORDS = {"order", "user", "account", "invoice", "payment", "report", "session", "token",
+            "catalog", "inventory", "shipment", "review", "profile", "event", "metric", "job"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * Files of a local checkout when dir is set, otherwise a generated snapshot of the given size.
+     */
+    public static Map<String, String> repoSnapshot(String dir, int files, long seed) {
+        return dir == null || dir.isBlank() ? generatedSnapshot(files, seed) : loadSnapshot(Path.of(dir));
+    }
+
+    public static Map<String, String> loadSnapshot(Path root) {
+        Map<String, String> files = new LinkedHashMap<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(Files::isRegularFile).sorted().toList()) {
+                String relative = root.relativize(path).toString().replace('\\', '/');
+                if (relative.startsWith(".git/") || !SNAPSHOT_EXTENSIONS.contains(extension(relative))) {
+                    continue;
+                }
+                files.put(relative, Files.readString(path, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read snapshot " + root, e);
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No source files found under " + root);
+        }
+        return files;
+    }
+
+    public static Map<String, String> generatedSnapshot(int files, long seed) {
+        Random random = new Random(seed);
+        Map<String, String> snapshot = new LinkedHashMap<>();
+        snapshot.put("src/main/java/com/example/app/Application.java", javaSource(random, "com.example.app", "Application", 1500));
+
+        while (snapshot.size() < files) {
+            int roll = random.nextInt(10);
+            String word = capitalize(WORDS[random.nextInt(WORDS.length)]);
+            if (roll < 6) {
+                String pkg = "com.example.app." + PACKAGES[random.nextInt(PACKAGES.length)];
+                String kind = KINDS[random.nextInt(KINDS.length)];
+                String root = "Test".equals(kind) ? "src/test/java/" : "src/main/java/";
+                String name = word + kind + (snapshot.size() % 7 == 0 ? snapshot.size() : "");
+                snapshot.put(root + pkg.replace('.', '/') + "/" + name + ".java", javaSource(random, pkg, name, fileSize(random)));
+            } else if (roll < 8) {
+                String dir = "scripts/" + PACKAGES[random.nextInt(PACKAGES.length)];
+                snapshot.put(dir + "/" + word.toLowerCase() + "_" + snapshot.size() + ".py", pythonSource(random, fileSize(random)));
+            } else {
+                String dir = "web/src/" + PACKAGES[random.nextInt(PACKAGES.length)];
+                snapshot.put(dir + "/" + word.toLowerCase() + snapshot.size() + ".js", jsSource(random, fileSize(random)));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * A page of GET /users/{owner}/repos as GitHub returns it, with every field the API sends and
+     * not just the ones the Github class maps.
+     */
+    public static byte[] repoPageJson(int size, long seed) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder(size * 6000);
+        json.append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String name = WORDS[random.nextInt(WORDS.length)] + "-" + WORDS[random.nextInt(WORDS.length)] + "-" + i;
+            appendRepo(json, random, 100000000 + random.nextInt(800000000), "octocat", name);
+        }
+        json.append(']');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendRepo(StringBuilder json, Random random, int id, String owner, String name) {
+        String api = "https://api.github.com/repos/" + owner + "/" + name;
+        json.append('{')
+                .append("\"id\":").append(id).append(',')
+                .append("\"node_id\":\"R_kgDO").append(Integer.toHexString(id)).append("\",")
+                .append("\"name\":\"").append(name).append("\",")
+                .append("\"full_name\":\"").append(owner).append('/').append(name).append("\",")
+                .append("\"private\":false,")
+                .append("\"owner\":{\"login\":\"").append(owner).append("\",\"id\":583231,\"node_id\":\"MDQ6VXNlcjU4MzIzMQ==\",")
+                .append("\"avatar_url\":\"https://avatars.githubusercontent.com/u/583231?v=4\",\"gravatar_id\":\"\",")
+                .append("\"url\":\"https://api.github.com/users/").append(owner).append("\",")
+                .append("\"html_url\":\"https://github.com/").append(owner).append("\",")
+                .append("\"followers_url\":\"https://api.github.com/users/").append(owner).append("/followers\",")
+                .append("\"following_url\":\"https://api.github.com/users/").append(owner).append("/following{/other_user}\",")
+                .append("\"gists_url\":\"https://api.github.com/users/").append(owner).append("/gists{/gist_id}\",")
+                .append("\"starred_url\":\"https://api.github.com/users/").append(owner).append("/starred{/owner}{/repo}\",")
+                .append("\"subscriptions_url\":\"https://api.github.com/users/").append(owner).append("/subscriptions\",")
+                .append("\"organizations_url\":\"https://api.github.com/users/").append(owner).append("/orgs\",")
+                .append("\"repos_url\":\"https://api.github.com/users/").append(owner).append("/repos\",")
+                .append("\"events_url\":\"https://api.github.com/users/").append(owner).append("/events{/privacy}\",")
+                .append("\"received_events_url\":\"https://api.github.com/users/").append(owner).append("/received_events\",")
+                .append("\"type\":\"User\",\"user_view_type\":\"public\",\"site_admin\":false},")
+                .append("\"html_url\":\"https://github.com/").append(owner).append('/').append(name).append("\",")
+                .append("\"description\":\"").append(sentence(random, 6 + random.nextInt(14))).append("\",")
+                .append("\"fork\":").append(random.nextInt(5) == 0).append(',')
+                .append("\"url\":\"").append(api).append("\",");
+        for (String link : new String[]{"forks", "keys{/key_id}", "collaborators{/collaborator}", "teams", "hooks",
+                "issues/events{/number}", "events", "assignees{/user}", "branches{/branch}", "tags", "blobs{/sha}",
+                "git/tags{/sha}", "git/refs{/sha}", "git/trees{/sha}", "statuses/{sha}", "languages", "stargazers",
+                "contributors", "subscribers", "subscription", "commits{/sha}", "git/commits{/sha}", "comments{/number}",
+                "issues/comments{/number}", "contents/{+path}", "compare/{base}...{head}", "merges", "{archive_format}{/ref}",
+                "downloads", "issues{/number}", "pulls{/number}", "milestones{/number}", "notifications{?since,all,participating}",
+                "labels{/name}", "releases{/id}", "deployments"}) {
+            String key = link.replaceAll("\\{.*", "").replace("/", "_").replaceAll("_$", "");
+            json.append('"').append(key.isEmpty() ? "archive" : key).append("_url\":\"").append(api).append('/').append(link).append("\",");
+        }
+        json.append("\"created_at\":\"2019-0").append(1 + random.nextInt(9)).append("-1").append(random.nextInt(10)).append("T08:21:44Z\",")
+                .append("\"updated_at\":\"2024-11-0").append(1 + random.nextInt(9)).append("T17:02:13Z\",")
+                .append("\"pushed_at\":\"2024-11-0").append(1 + random.nextInt(9)).append("T17:02:10Z\",")
+                .append("\"git_url\":\"git://github.com/").append(owner).append('/').append(name).append(".git\",")
+                .append("\"ssh_url\":\"git@github.com:").append(owner).append('/').append(name).append(".git\",")
+                .append("\"clone_url\":\"https://github.com/").append(owner).append('/').append(name).append(".git\",")
+                .append("\"svn_url\":\"https://github.com/").append(owner).append('/').append(name).append("\",")
+                .append("\"homepage\":null,")
+                .append("\"size\":").append(random.nextInt(250000)).append(',')
+                .append("\"stargazers_count\":").append(random.nextInt(5000)).append(',')
+                .append("\"watchers_count\":").append(random.nextInt(5000)).append(',')
+                .append("\"language\":\"").append(new String[]{"Java", "Python", "JavaScript", "C++", "PHP"}[random.nextInt(5)]).append("\",")
+                .append("\"has_issues\":true,\"has_projects\":true,\"has_downloads\":true,\"has_wiki\":true,\"has_pages\":false,")
+                .append("\"has_discussions\":false,")
+                .append("\"forks_count\":").append(random.nextInt(800)).append(',')
+                .append("\"mirror_url\":null,\"archived\":false,\"disabled\":false,")
+                .append("\"open_issues_count\":").append(random.nextInt(60)).append(',')
+                .append("\"license\":{\"key\":\"mit\",\"name\":\"MIT License\",\"spdx_id\":\"MIT\",")
+                .append("\"url\":\"https://api.github.com/licenses/mit\",\"node_id\":\"MDc6TGljZW5zZTEz\"},")
+                .append("\"allow_forking\":true,\"is_template\":false,\"web_commit_signoff_required\":false,")
+                .append("\"topics\":[\"").append(WORDS[random.nextInt(WORDS.length)]).append("\",\"")
+                .append(WORDS[random.nextInt(WORDS.length)]).append("\"],")
+                .append("\"visibility\":\"public\",")
+                .append("\"forks\":").append(random.nextInt(800)).append(',')
+                .append("\"open_issues\":").append(random.nextInt(60)).append(',')
+                .append("\"watchers\":").append(random.nextInt(5000)).append(',')
+                .append("\"default_branch\":\"").append(random.nextBoolean() ? "main" : "master").append('"')
+                .append('}');
+    }
+
+    // Mostly 1-8 KB, with one file in twenty between 20 and 80 KB
+    private static int fileSize(Random random) {
+        return random.nextInt(20) == 0 ? 20000 + random.nextInt(60000) : 1000 + random.nextInt(7000);
+    }
+
+    private static String javaSource(Random random, String pkg, String name, int size) {
+        StringBuilder source = new StringBuilder(size + 200);
+        source.append("/*\n * Copyright (c) 2024 Example Corp.\n * Licensed under the MIT License.\n */\n")
+                .append("package ").append(pkg).append(";\n\n")
+                .append("import java.util.List;\nimport java.util.Map;\nimport java.util.Optional;\n\n")
+                .append("/**\n * ").append(sentence(random, 12)).append("\n */\n")
+                .append("public class ").append(name).append(" {\n\n")
+                .append("    private final Map<String, Object> state = new java.util.HashMap<>();\n\n");
+        int method = 0;
+        while (source.length() < size) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            source.append("    /**\n     * ").append(sentence(random, 8 + random.nextInt(10))).append("\n     */\n")
+                    .append("    public Optional<String> find").append(capitalize(word)).append(method++).append("(String id, int limit) {\n")
+                    .append("        if (id == null || id.isBlank()) {\n")
+                    .append("            return Optional.empty();\n")
+                    .append("        }\n")
+                    .append("        List<String> matches = state.keySet().stream()\n")
+                    .append("                .filter(key -> key.startsWith(\"").append(word).append(":\"))\n")
+                    .append("                .limit(limit)\n")
+                    .append("                .toList();\n")
+                    .append("        return matches.isEmpty() ? Optional.empty() : Optional.of(matches.get(0));\n")
+                    .append("    }\n\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    private static String pythonSource(Random random, int size) {
+        StringBuilder source = new StringBuilder(size + 200);
+        source.append("# Copyright (c) 2024 Example Corp.\n# SPDX-License-Identifier: MIT\n\n")
+                .append("import json\nimport logging\nfrom dataclasses import dataclass\n\n")
+                .append("logger = logging.getLogger(__name__)\n\n\n");
+        int function = 0;
+        while (source.length() < size) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            source.append("def load_").append(word).append('_').append(function++).append("(path, limit=100):\n")
+                    .append("    \"\"\"").append(sentence(random, 10)).append("\"\"\"\n")
+                    .append("    with open(path) as handle:\n")
+                    .append("        rows = [json.loads(line) for line in handle]\n")
+                    .append("    logger.info(\"loaded %d ").append(word).append(" rows\", len(rows))\n")
+                    .append("    return [row for row in rows if row.get(\"").append(word).append("\")][:limit]\n\n\n");
+        }
+        return source.toString();
+    }
+
+    private static String jsSource(Random random, int size) {
+        StringBuilder source = new StringBuilder(size + 200);
+        source.append("import React, { useEffect, useState } from 'react';\n\n");
+        int component = 0;
+        while (source.length() < size) {
+            String word = capitalize(WORDS[random.nextInt(WORDS.length)]);
+            source.append("// ").append(sentence(random, 9)).append('\n')
+                    .append("export function ").append(word).append("List").append(component++).append("({ items }) {\n")
+                    .append("  const [filter, setFilter] = useState('');\n")
+                    .append("  useEffect(() => { document.title = `").append(word).append(" (${items.length})`; }, [items]);\n")
+                    .append("  return (\n    <ul>\n      {items.filter(item => item.name.includes(filter))\n")
+                    .append("        .map(item => <li key={item.id}>{item.name}</li>)}\n    </ul>\n  );\n}\n\n");
+        }
+        return source.toString();
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return capitalize(sentence.append('.').toString());
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static String extension(String path) {
+        int lastDot = path.lastIndexOf('.');
+        return lastDot < path.lastIndexOf('/') + 1 ? "" : path.substring(lastDot + 1).toLowerCase();
+    }
+}
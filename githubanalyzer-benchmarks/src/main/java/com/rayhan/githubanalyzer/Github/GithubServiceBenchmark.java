@@ -0,0 +1,71 @@
+package com.rayhan.githubanalyzer.Github;
+
+import com.rayhan.githubanalyzer.Fixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-file helpers GithubService runs for every entry of a tree listing or archive: the
+ * check for source and build files worth reading and the raw.githubusercontent.com URL. Each operation
+ * goes over all paths of the snapshot, plus as many non-source paths as a typical repository has.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class GithubServiceBenchmark {
+
+    private static final String[] OTHER_FILES = {"README.md", "LICENSE", ".gitignore", "docs/setup.md", "assets/logo.png",
+            "src/main/resources/application.yml", "web/package.json", "web/public/index.html", "Dockerfile", "mvnw"};
+
+    @Param({"500", "5000"})
+    public int files;
+
+    @Param("")
+    public String snapshot;
+
+    private String[] paths;
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        List<String> all = new ArrayList<>(Fixtures.repoSnapshot(snapshot, files, 42).keySet());
+        // Tree listings include everything, not just source files
+        for (int i = 0; all.size() < files * 2; i++) {
+            all.add("module" + i + "/" + OTHER_FILES[i % OTHER_FILES.length]);
+        }
+        paths = all.toArray(String[]::new);
+        names = all.stream().map(path -> path.substring(path.lastIndexOf('/') + 1)).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public void getExtension(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(GithubService.getExtension(name));
+        }
+    }
+
+    @Benchmark
+    public int isAnalyzable() {
+        int valid = 0;
+        for (String name : names) {
+            if (GithubService.isAnalyzable(name)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public void buildRawFileUrl(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(GithubService.buildRawFileUrl("https://raw.githubusercontent.com", "octocat", "hello-world", "main", path));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.rayhan.githubanalyzer.Github;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.rayhan.githubanalyzer.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a page of GET /users/{owner}/repos into Github objects, as the WebClient codecs do for
+ * getAllRepos and the paginated crawls. GitHub sends about eighty fields per repository and Github
+ * maps a handful, so most of the work is skipping the rest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RepoPageDeserializationBenchmark {
+
+    @Param({"30", "100"})
+    public int pageSize;
+
+    private byte[] page;
+    private ObjectMapper objectMapper;
+    private ObjectReader pageReader;
+
+    @Setup
+    public void setUp() {
+        page = Fixtures.repoPageJson(pageSize, 42);
+        // Same setting as the ObjectMapper Spring Boot configures for the codecs
+        objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        pageReader = objectMapper.readerForListOf(Github.class);
+    }
+
+    @Benchmark
+    public List<Github> readPage() throws IOException {
+        return objectMapper.readValue(page, new TypeReference<List<Github>>() {});
+    }
+
+    @Benchmark
+    public List<Github> readPageWithReader() throws IOException {
+        return pageReader.readValue(page);
+    }
+}
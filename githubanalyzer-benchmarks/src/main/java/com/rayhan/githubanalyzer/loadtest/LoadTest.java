@@ -0,0 +1,256 @@
+package com.rayhan.githubanalyzer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.rayhan.githubanalyzer.GithubanalyzerApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Drives the analyzer's endpoints at a fixed concurrency against StandInServer and reports
+ * throughput, latency percentiles and heap usage per scenario.
+ *
+ * By default the analyzer is started in this JVM, pointed at a stand-in on a random port. It still
+ * needs its Postgres database, passed as --spring.datasource.url/username/password (every --spring.*
+ * or --server.* argument is handed to the application). With --target=http://host:port an analyzer
+ * started elsewhere is driven instead; start it against a stand-in run with StandInServer.main.
+ *
+ * Scenarios (--scenarios, comma separated):
+ * - allrepos: GET /api/github/allrepos for a handful of owners with several pages of repositories
+ * - overview: GET /api/github/repo/overview, every request for a repository not analyzed before
+ * - profile:  GET /api/github/repos/profileoverview for owners imported with /usersavedrepos/import
+ *   beforehand, again one owner per request so the README cache is never hit
+ *
+ * Options: --requests (per scenario, default 200), --warmup (default 20), --concurrency (default 16)
+ * and --profile-repos (default 5), plus the StandInServer.Options ones such as --gemini-latency-ms.
+ */
+public class LoadTest {
+
+    private static final Duration HEAP_SAMPLE_INTERVAL = Duration.ofMillis(500);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+    private static final int ALLREPOS_OWNERS = 10;
+
+    private final WebClient client;
+    private final int concurrency;
+    private final int requests;
+    private final int warmup;
+    private final int profileRepos;
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    LoadTest(String target, int concurrency, int requests, int warmup, int profileRepos) {
+        ConnectionProvider provider = ConnectionProvider.builder("load-test")
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.client = WebClient.builder()
+                .baseUrl(target)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider).responseTimeout(REQUEST_TIMEOUT)))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+        this.concurrency = concurrency;
+        this.requests = requests;
+        this.warmup = warmup;
+        this.profileRepos = profileRepos;
+    }
+
+    public static void main(String[] rawArgs) {
+        Map<String, String> args = parseArgs(rawArgs);
+        int concurrency = Integer.parseInt(args.getOrDefault("concurrency", "16"));
+        int requests = Integer.parseInt(args.getOrDefault("requests", "200"));
+        int warmup = Integer.parseInt(args.getOrDefault("warmup", "20"));
+        int profileRepos = Integer.parseInt(args.getOrDefault("profile-repos", "5"));
+        List<String> scenarios = List.of(args.getOrDefault("scenarios", "allrepos,overview,profile").split(","));
+
+        StandInServer standIn = args.containsKey("target") ? null : StandInServer.start(StandInServer.Options.fromArgs(args));
+        ConfigurableApplicationContext app = null;
+        try {
+            String target = args.get("target");
+            if (target == null) {
+                app = startAnalyzer(standIn, rawArgs);
+                target = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            }
+            System.out.println("Load testing " + target + " at concurrency " + concurrency + ", " + requests + " requests per scenario");
+
+            LoadTest loadTest = new LoadTest(target, concurrency, requests, warmup, profileRepos);
+            List<Result> results = new ArrayList<>();
+            for (String scenario : scenarios) {
+                results.add(loadTest.run(scenario.trim()));
+            }
+
+            System.out.println();
+            System.out.println(Result.HEADER);
+            results.forEach(result -> System.out.println(result.format()));
+            if (standIn != null) {
+                System.out.println();
+                System.out.println("Stand-in served " + standIn.getRequests() + " requests, injected " + standIn.getInjectedFailures()
+                        + " failures and rejected " + standIn.getRateLimited() + " over the rate limit");
+            }
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            if (standIn != null) {
+                standIn.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startAnalyzer(StandInServer standIn, String[] rawArgs) {
+        Map<String, Object> properties = new LinkedHashMap<>(standIn.properties());
+        properties.put("server.port", "0");
+        properties.put("management.endpoints.web.exposure.include", "health,metrics");
+        properties.put("spring.jpa.open-in-view", "false");
+
+        String[] appArgs = Arrays.stream(rawArgs)
+                .filter(arg -> arg.startsWith("--spring.") || arg.startsWith("--server.") || arg.startsWith("--management."))
+                .toArray(String[]::new);
+        SpringApplication application = new SpringApplication(GithubanalyzerApplication.class);
+        application.setDefaultProperties(properties);
+        return application.run(appArgs);
+    }
+
+    Result run(String scenario) {
+        IntFunction<Mono<?>> call = switch (scenario) {
+            case "allrepos" -> i -> get("/api/github/allrepos?owner={owner}", "load-" + runId + "-" + (i % ALLREPOS_OWNERS));
+            case "overview" -> i -> get("/api/github/repo/overview?owner={owner}&repo={repo}",
+                    "load-" + runId, "repo-" + sequence.getAndIncrement());
+            case "profile" -> i -> get("/api/github/repos/profileoverview?username={username}", profileOwner(i));
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+
+        if ("profile".equals(scenario)) {
+            System.out.println("Importing " + (warmup + requests) + " profiles of " + profileRepos + " repositories...");
+            Flux.range(0, warmup + requests)
+                    .flatMap(i -> client.post()
+                            .uri("/api/github/usersavedrepos/import/{owner}", profileOwner(i))
+                            .retrieve()
+                            .toBodilessEntity(), concurrency)
+                    .blockLast();
+        }
+
+        System.out.println("Running " + scenario + "...");
+        drive(call, 0, warmup, new ArrayList<>(), new AtomicLong());
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(requests));
+        AtomicLong errors = new AtomicLong();
+        HeapSampler heap = new HeapSampler();
+        Disposable sampling = heap.start();
+        long start = System.nanoTime();
+        drive(call, warmup, requests, latencies, errors);
+        long elapsed = System.nanoTime() - start;
+        sampling.dispose();
+        heap.sample().block();
+
+        return new Result(scenario, latencies, errors.get(), elapsed, heap.peak, heap.last);
+    }
+
+    private void drive(IntFunction<Mono<?>> call, int from, int count, List<Long> latencies, AtomicLong errors) {
+        Flux.range(from, count)
+                .flatMap(i -> Mono.defer(() -> {
+                            long start = System.nanoTime();
+                            return call.apply(i)
+                                    .doOnSuccess(ignored -> latencies.add(System.nanoTime() - start))
+                                    .onErrorResume(e -> {
+                                        errors.incrementAndGet();
+                                        return Mono.empty();
+                                    });
+                        }),
+                        concurrency)
+                .blockLast();
+    }
+
+    private Mono<?> get(String uri, Object... variables) {
+        return client.get()
+                .uri(uri, variables)
+                .retrieve()
+                .bodyToMono(byte[].class);
+    }
+
+    private String profileOwner(int i) {
+        return "profile-" + runId + "-" + i + "-" + profileRepos + "repos";
+    }
+
+    /**
+     * Heap in use on the target, read from its jvm.memory.used meter.
+     */
+    private final class HeapSampler {
+        private volatile long peak;
+        private volatile long last;
+
+        Disposable start() {
+            return Flux.interval(Duration.ZERO, HEAP_SAMPLE_INTERVAL)
+                    .concatMap(tick -> sample())
+                    .subscribe();
+        }
+
+        Mono<Long> sample() {
+            return client.get()
+                    .uri("/actuator/metrics/jvm.memory.used?tag=area:heap")
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .map(json -> json.path("measurements").path(0).path("value").asLong())
+                    .doOnNext(used -> {
+                        last = used;
+                        peak = Math.max(peak, used);
+                    })
+                    .onErrorResume(e -> Mono.empty());
+        }
+    }
+
+    record Result(String scenario, List<Long> latencies, long errors, long elapsedNanos, long heapPeak, long heapLast) {
+
+        static final String HEADER = String.format("%-10s %9s %7s %10s %10s %10s %10s %12s %12s",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "heap peak MB", "heap end MB");
+
+        String format() {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            long total = sorted.size() + errors;
+            double seconds = elapsedNanos / 1e9;
+            return String.format("%-10s %9d %7d %10.1f %10.1f %10.1f %10.1f %12.1f %12.1f",
+                    scenario, total, errors, total / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted.isEmpty() ? 0.0 : sorted.get(sorted.size() - 1) / 1e6,
+                    heapPeak / 1048576.0, heapLast / 1048576.0);
+        }
+
+        private static double percentile(List<Long> sorted, double quantile) {
+            if (sorted.isEmpty()) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+            return sorted.get(Math.max(index, 0)) / 1e6;
+        }
+    }
+
+    /**
+     * Arguments of the form --name=value, with the leading dashes removed from the name.
+     */
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        for (String arg : args) {
+            String option = arg.replaceFirst("^--", "");
+            int equals = option.indexOf('=');
+            if (equals > 0) {
+                parsed.put(option.substring(0, equals), option.substring(equals + 1));
+            } else {
+                parsed.put(option, "true");
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,645 @@
+package com.rayhan.githubanalyzer.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rayhan.githubanalyzer.Fixtures;
+import com.rayhan.githubanalyzer.Github.BlobCache;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Offline stand-in for the GitHub and Gemini endpoints the analyzer calls, so it can be load tested
+ * without spending rate limit or quota. Every owner exists and every repository name resolves to a
+ * generated codebase (Fixtures.generatedSnapshot, seeded by the repository name), so any number of
+ * distinct repositories can be requested.
+ *
+ * Served under one port:
+ * - GitHub API: /users/{owner}, /users/{owner}/repos (paginated, with Link headers),
+ *   /repos/{owner}/{repo}, /repos/{owner}/{repo}/branches/{branch}, /repos/{owner}/{repo}/git/trees/{branch},
+ *   /repos/{owner}/{repo}/contents/{path} and /repos/{owner}/{repo}/zipball/{branch} (redirects to /codeload)
+ * - raw file downloads under /raw, in the raw.githubusercontent.com layout
+ * - Gemini under /gemini: {model}:generateContent and {model}:streamGenerateContent?alt=sse
+ *
+ * API responses carry ETags and honor If-None-Match, and send X-RateLimit-* headers from a budget of
+ * rateLimit requests per rateLimitWindow; once it is spent requests get a 403 until the window resets.
+ * Latency and failure rates are configurable separately for GitHub and Gemini.
+ *
+ * Owners named like "someone-5repos" have that many repositories, all others have reposPerOwner.
+ * The analyzer has to be started with github.api.base-url, github.raw.base-url and gemini.api.base-url
+ * pointing here (see properties()).
+ */
+public class StandInServer implements AutoCloseable {
+
+    private static final Pattern REPO_COUNT = Pattern.compile("-(\\d+)repos$");
+    private static final int MAX_CACHED_REPOS = 256;
+    private static final int STREAM_CHUNKS = 8;
+
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Repo> repos = new LinkedHashMap<>(MAX_CACHED_REPOS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Repo> eldest) {
+            return size() > MAX_CACHED_REPOS;
+        }
+    };
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedFailures = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final DisposableServer server;
+
+    private long windowResetAt;
+    private int windowRemaining;
+
+    public StandInServer(Options options) {
+        this.options = options;
+        this.windowRemaining = options.rateLimit;
+        this.windowResetAt = System.currentTimeMillis() + options.rateLimitWindow.toMillis();
+        this.server = HttpServer.create()
+                .host(options.host)
+                .port(options.port)
+                .handle(this::handle)
+                .bindNow();
+    }
+
+    public static StandInServer start(Options options) {
+        return new StandInServer(options);
+    }
+
+    public String baseUrl() {
+        return "http://" + options.host + ":" + server.port();
+    }
+
+    /**
+     * Settings that point the analyzer at this server.
+     */
+    public Map<String, Object> properties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("github.api.base-url", baseUrl());
+        properties.put("github.raw.base-url", baseUrl() + "/raw");
+        properties.put("gemini.api.base-url", baseUrl() + "/gemini/");
+        properties.put("github.token", "stand-in");
+        properties.put("gemini.api.key", "stand-in");
+        properties.put("gemini.api.model-id", "stand-in-model");
+        return properties;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getInjectedFailures() {
+        return injectedFailures.get();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.get();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        requests.incrementAndGet();
+        QueryStringDecoder uri = new QueryStringDecoder(request.uri());
+        String[] path = Arrays.stream(uri.path().split("/")).filter(segment -> !segment.isEmpty()).toArray(String[]::new);
+        Map<String, List<String>> query = uri.parameters();
+
+        if (path.length > 0 && "gemini".equals(path[0])) {
+            return delay(options.geminiLatency, options.geminiJitter)
+                    .then(Mono.defer(() -> gemini(request, response, path, query)));
+        }
+        if (path.length > 0 && ("raw".equals(path[0]) || "codeload".equals(path[0]))) {
+            return delay(options.githubLatency, options.githubJitter)
+                    .then(Mono.defer(() -> failureInjected(options.githubFailureRate)
+                            ? sendStatus(response, HttpResponseStatus.SERVICE_UNAVAILABLE)
+                            : "raw".equals(path[0]) ? raw(response, path) : codeload(response, path)));
+        }
+        return delay(options.githubLatency, options.githubJitter)
+                .then(Mono.defer(() -> api(request, response, path, query)));
+    }
+
+    private Mono<Void> api(HttpServerRequest request, HttpServerResponse response, String[] path, Map<String, List<String>> query) {
+        if (!takeRateLimit(response)) {
+            rateLimited.incrementAndGet();
+            return sendJson(request, response.status(HttpResponseStatus.FORBIDDEN),
+                    objectMapper.createObjectNode().put("message", "API rate limit exceeded"));
+        }
+        if (failureInjected(options.githubFailureRate)) {
+            return sendStatus(response, HttpResponseStatus.SERVICE_UNAVAILABLE);
+        }
+        if (!HttpMethod.GET.equals(request.method())) {
+            return sendStatus(response, HttpResponseStatus.METHOD_NOT_ALLOWED);
+        }
+
+        if (path.length == 2 && "users".equals(path[0])) {
+            return sendJson(request, response, user(path[1]));
+        }
+        if (path.length == 3 && "users".equals(path[0]) && "repos".equals(path[2])) {
+            return reposPage(request, response, path[1], query);
+        }
+        if (path.length >= 3 && "repos".equals(path[0])) {
+            Repo repo = repo(path[1], path[2]);
+            if (path.length == 3) {
+                return sendJson(request, response, repoJson(repo));
+            }
+            String resource = path[3];
+            if ("branches".equals(resource) && path.length == 5) {
+                return sendJson(request, response, branch(repo));
+            }
+            if ("git".equals(resource) && path.length == 6 && "trees".equals(path[4])) {
+                return sendJson(request, response, tree(repo));
+            }
+            if ("contents".equals(resource)) {
+                return contents(request, response, repo, String.join("/", Arrays.copyOfRange(path, 4, path.length)));
+            }
+            if ("zipball".equals(resource) && path.length == 5) {
+                // Like GitHub, the archive itself is served from another location
+                return response.status(HttpResponseStatus.FOUND)
+                        .header("Location", baseUrl() + "/codeload/" + repo.owner + "/" + repo.name + "/zip/" + path[4])
+                        .send()
+                        .then();
+            }
+        }
+        return sendStatus(response, HttpResponseStatus.NOT_FOUND);
+    }
+
+    private ObjectNode user(String owner) {
+        ObjectNode user = objectMapper.createObjectNode();
+        user.put("login", owner);
+        user.put("id", Math.abs(owner.hashCode()));
+        user.put("avatar_url", baseUrl() + "/avatars/" + owner);
+        user.put("html_url", "https://github.com/" + owner);
+        user.put("name", owner);
+        user.put("bio", "Stand-in user for load testing");
+        user.put("public_repos", repoCount(owner));
+        user.put("followers", 42);
+        user.put("following", 7);
+        user.put("created_at", "2015-06-01T12:00:00Z");
+        return user;
+    }
+
+    private Mono<Void> reposPage(HttpServerRequest request, HttpServerResponse response, String owner, Map<String, List<String>> query) {
+        int perPage = Math.min(intParam(query, "per_page", 30), 100);
+        int page = Math.max(intParam(query, "page", 1), 1);
+        int total = repoCount(owner);
+        int lastPage = Math.max((total + perPage - 1) / perPage, 1);
+
+        ArrayNode items = objectMapper.createArrayNode();
+        for (int i = (page - 1) * perPage; i < Math.min(page * perPage, total); i++) {
+            items.add(repoSummary(owner, "repo-" + i));
+        }
+        if (lastPage > 1) {
+            String pageUrl = baseUrl() + "/users/" + owner + "/repos?per_page=" + perPage + "&page=";
+            List<String> links = new ArrayList<>();
+            if (page < lastPage) {
+                links.add("<" + pageUrl + (page + 1) + ">; rel=\"next\"");
+            }
+            links.add("<" + pageUrl + lastPage + ">; rel=\"last\"");
+            response.header("Link", String.join(", ", links));
+        }
+        return sendJson(request, response, items);
+    }
+
+    // Listing entries, without generating the repository's files
+    private ObjectNode repoSummary(String owner, String name) {
+        ObjectNode repo = objectMapper.createObjectNode();
+        repo.put("id", Math.abs((owner + "/" + name).hashCode()));
+        repo.put("name", name);
+        repo.put("full_name", owner + "/" + name);
+        repo.put("html_url", "https://github.com/" + owner + "/" + name);
+        repo.put("description", "Generated repository " + name);
+        repo.put("language", "Java");
+        repo.put("stargazers_count", Math.abs(name.hashCode()) % 500);
+        repo.put("forks_count", Math.abs(name.hashCode()) % 50);
+        repo.put("size", options.filesPerRepo * 6);
+        repo.put("default_branch", "main");
+        repo.putObject("owner").put("login", owner);
+        return repo;
+    }
+
+    private ObjectNode repoJson(Repo repo) {
+        ObjectNode json = repoSummary(repo.owner, repo.name);
+        json.put("size", repo.sizeKb());
+        return json;
+    }
+
+    private ObjectNode branch(Repo repo) {
+        ObjectNode branch = objectMapper.createObjectNode();
+        branch.put("name", repo.branch);
+        ObjectNode commit = branch.putObject("commit");
+        commit.put("sha", repo.commitSha);
+        commit.putObject("commit").putObject("tree").put("sha", repo.treeSha);
+        return branch;
+    }
+
+    private ObjectNode tree(Repo repo) {
+        ObjectNode tree = objectMapper.createObjectNode();
+        tree.put("sha", repo.treeSha);
+        tree.put("truncated", false);
+        ArrayNode entries = tree.putArray("tree");
+        Set<String> directories = new TreeSet<>();
+        repo.files.forEach((path, content) -> {
+            for (int slash = path.indexOf('/'); slash > 0; slash = path.indexOf('/', slash + 1)) {
+                directories.add(path.substring(0, slash));
+            }
+        });
+        directories.forEach(directory -> entries.addObject()
+                .put("path", directory).put("mode", "040000").put("type", "tree").put("sha", sha1("tree:" + directory)));
+        repo.files.forEach((path, content) -> entries.addObject()
+                .put("path", path).put("mode", "100644").put("type", "blob")
+                .put("sha", repo.shas.get(path)).put("size", content.getBytes(StandardCharsets.UTF_8).length));
+        return tree;
+    }
+
+    private Mono<Void> contents(HttpServerRequest request, HttpServerResponse response, Repo repo, String dir) {
+        String content = repo.files.get(dir);
+        if (content != null) {
+            ObjectNode file = contentEntry(repo, dir, "file");
+            file.put("encoding", "base64");
+            file.put("content", Base64.getMimeEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8)));
+            return sendJson(request, response, file);
+        }
+
+        String prefix = dir.isEmpty() ? "" : dir + "/";
+        Map<String, String> children = new TreeMap<>();
+        for (String path : repo.files.keySet()) {
+            if (path.startsWith(prefix)) {
+                String rest = path.substring(prefix.length());
+                int slash = rest.indexOf('/');
+                children.putIfAbsent(prefix + (slash < 0 ? rest : rest.substring(0, slash)), slash < 0 ? "file" : "dir");
+            }
+        }
+        if (children.isEmpty()) {
+            return sendStatus(response, HttpResponseStatus.NOT_FOUND);
+        }
+        ArrayNode listing = objectMapper.createArrayNode();
+        children.forEach((path, type) -> listing.add(contentEntry(repo, path, type)));
+        return sendJson(request, response, listing);
+    }
+
+    private ObjectNode contentEntry(Repo repo, String path, String type) {
+        ObjectNode entry = objectMapper.createObjectNode();
+        entry.put("name", path.substring(path.lastIndexOf('/') + 1));
+        entry.put("path", path);
+        entry.put("type", type);
+        if ("file".equals(type)) {
+            entry.put("sha", repo.shas.get(path));
+            entry.put("size", repo.files.get(path).getBytes(StandardCharsets.UTF_8).length);
+            entry.put("download_url", baseUrl() + "/raw/" + repo.owner + "/" + repo.name + "/" + repo.branch + "/" + path);
+        } else {
+            entry.put("sha", sha1("tree:" + path));
+        }
+        return entry;
+    }
+
+    private Mono<Void> raw(HttpServerResponse response, String[] path) {
+        if (path.length < 5) {
+            return sendStatus(response, HttpResponseStatus.NOT_FOUND);
+        }
+        String filePath = String.join("/", Arrays.copyOfRange(path, 4, path.length));
+        String content = repo(path[1], path[2]).files.get(filePath);
+        if (content == null) {
+            return sendStatus(response, HttpResponseStatus.NOT_FOUND);
+        }
+        return response.header("Content-Type", "text/plain; charset=utf-8")
+                .sendByteArray(Mono.just(content.getBytes(StandardCharsets.UTF_8)))
+                .then();
+    }
+
+    private Mono<Void> codeload(HttpServerResponse response, String[] path) {
+        if (path.length != 5) {
+            return sendStatus(response, HttpResponseStatus.NOT_FOUND);
+        }
+        Repo repo = repo(path[1], path[2]);
+        return response.header("Content-Type", "application/zip")
+                .sendByteArray(Mono.fromSupplier(repo::zipball))
+                .then();
+    }
+
+    private Mono<Void> gemini(HttpServerRequest request, HttpServerResponse response, String[] path, Map<String, List<String>> query) {
+        if (failureInjected(options.geminiFailureRate)) {
+            return request.receive().then(sendJson(request, response.status(HttpResponseStatus.SERVICE_UNAVAILABLE),
+                    objectMapper.createObjectNode().putObject("error").put("code", 503).put("message", "The model is overloaded.")));
+        }
+        boolean streaming = path.length == 2 && path[1].endsWith(":streamGenerateContent");
+        if (path.length != 2 || !(streaming || path[1].endsWith(":generateContent"))) {
+            return sendStatus(response, HttpResponseStatus.NOT_FOUND);
+        }
+
+        return request.receive().aggregate().asString(StandardCharsets.UTF_8).defaultIfEmpty("")
+                .flatMap(body -> {
+                    String readMe = generatedReadMe(body.length());
+                    if (!streaming) {
+                        return sendJson(request, response, candidate(readMe));
+                    }
+                    int chunkLength = (readMe.length() + STREAM_CHUNKS - 1) / STREAM_CHUNKS;
+                    Flux<String> events = Flux.range(0, STREAM_CHUNKS)
+                            .delayElements(options.geminiStreamInterval)
+                            .map(i -> readMe.substring(Math.min(i * chunkLength, readMe.length()), Math.min((i + 1) * chunkLength, readMe.length())))
+                            .map(text -> "data: " + write(candidate(text)) + "\n\n");
+                    return response.header("Content-Type", "text/event-stream")
+                            .sendString(events, StandardCharsets.UTF_8)
+                            .then();
+                });
+    }
+
+    private ObjectNode candidate(String text) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.putArray("candidates").addObject()
+                .putObject("content").putArray("parts").addObject().put("text", text);
+        return json;
+    }
+
+    private String generatedReadMe(int promptLength) {
+        StringBuilder readMe = new StringBuilder("# Stand-in Project\n\n");
+        readMe.append("Generated from a prompt of ").append(promptLength).append(" characters.\n\n");
+        for (String section : List.of("Features", "Installation", "Usage", "Architecture", "License")) {
+            readMe.append("## ").append(section).append("\n\n");
+            readMe.append("This section describes the ").append(section.toLowerCase())
+                    .append(" of the project in a few sentences, the way a generated README would.\n\n");
+        }
+        return readMe.toString();
+    }
+
+    private Mono<Void> sendJson(HttpServerRequest request, HttpServerResponse response, Object body) {
+        byte[] bytes = write(body).getBytes(StandardCharsets.UTF_8);
+        String etag = "\"" + sha1(bytes) + "\"";
+        response.header("ETag", etag);
+        if (etag.equals(request.requestHeaders().get("If-None-Match"))) {
+            return response.status(HttpResponseStatus.NOT_MODIFIED).send().then();
+        }
+        return response.header("Content-Type", "application/json; charset=utf-8")
+                .sendByteArray(Mono.just(bytes))
+                .then();
+    }
+
+    private Mono<Void> sendStatus(HttpServerResponse response, HttpResponseStatus status) {
+        return response.status(status).send().then();
+    }
+
+    private synchronized boolean takeRateLimit(HttpServerResponse response) {
+        long now = System.currentTimeMillis();
+        if (now >= windowResetAt) {
+            windowRemaining = options.rateLimit;
+            windowResetAt = now + options.rateLimitWindow.toMillis();
+        }
+        boolean allowed = windowRemaining > 0;
+        if (allowed) {
+            windowRemaining--;
+        }
+        response.header("X-RateLimit-Limit", String.valueOf(options.rateLimit))
+                .header("X-RateLimit-Remaining", String.valueOf(windowRemaining))
+                .header("X-RateLimit-Reset", String.valueOf((windowResetAt + 999) / 1000))
+                .header("X-RateLimit-Resource", "core");
+        return allowed;
+    }
+
+    private boolean failureInjected(double rate) {
+        if (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate) {
+            injectedFailures.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private Mono<Long> delay(Duration latency, Duration jitter) {
+        long millis = latency.toMillis() + (jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1));
+        return millis <= 0 ? Mono.just(0L) : Mono.delay(Duration.ofMillis(millis));
+    }
+
+    private int repoCount(String owner) {
+        Matcher matcher = REPO_COUNT.matcher(owner);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : options.reposPerOwner;
+    }
+
+    private Repo repo(String owner, String name) {
+        String key = owner + "/" + name;
+        synchronized (repos) {
+            Repo cached = repos.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Repo repo = new Repo(owner, name, Fixtures.generatedSnapshot(options.filesPerRepo, key.hashCode()));
+        synchronized (repos) {
+            repos.putIfAbsent(key, repo);
+            return repos.get(key);
+        }
+    }
+
+    private String write(Object json) {
+        try {
+            return objectMapper.writeValueAsString(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int intParam(Map<String, List<String>> query, String name, int defaultValue) {
+        List<String> values = query.get(name);
+        try {
+            return values == null || values.isEmpty() ? defaultValue : Integer.parseInt(values.get(0));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static String sha1(String text) {
+        return sha1(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha1(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    /**
+     * A generated repository, with git blob SHAs for its files so the analyzer's blob cache behaves
+     * as it does against GitHub.
+     */
+    private static final class Repo {
+        private final String owner;
+        private final String name;
+        private final String branch = "main";
+        private final Map<String, String> files;
+        private final Map<String, String> shas = new HashMap<>();
+        private final String treeSha;
+        private final String commitSha;
+        private byte[] zipball;
+
+        private Repo(String owner, String name, Map<String, String> files) {
+            this.owner = owner;
+            this.name = name;
+            this.files = files;
+            StringBuilder listing = new StringBuilder();
+            files.forEach((path, content) -> {
+                String sha = BlobCache.gitBlobSha(content.getBytes(StandardCharsets.UTF_8));
+                shas.put(path, sha);
+                listing.append(path).append(' ').append(sha).append('\n');
+            });
+            this.treeSha = sha1(listing.toString());
+            this.commitSha = sha1("commit:" + treeSha);
+        }
+
+        private long sizeKb() {
+            return files.values().stream().mapToLong(String::length).sum() / 1024 + 1;
+        }
+
+        private synchronized byte[] zipball() {
+            if (zipball == null) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                String root = owner + "-" + name + "-" + commitSha.substring(0, 7) + "/";
+                try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+                    zip.putNextEntry(new ZipEntry(root));
+                    zip.closeEntry();
+                    for (Map.Entry<String, String> file : files.entrySet()) {
+                        zip.putNextEntry(new ZipEntry(root + file.getKey()));
+                        zip.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+                        zip.closeEntry();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                zipball = bytes.toByteArray();
+            }
+            return zipball;
+        }
+    }
+
+    /**
+     * Behavior of the stand-in. The defaults answer quickly and never fail.
+     */
+    public static class Options {
+        private String host = "127.0.0.1";
+        private int port;
+        private int reposPerOwner = 120;
+        private int filesPerRepo = 60;
+        private Duration githubLatency = Duration.ofMillis(20);
+        private Duration githubJitter = Duration.ofMillis(20);
+        private double githubFailureRate;
+        private int rateLimit = 5000;
+        private Duration rateLimitWindow = Duration.ofHours(1);
+        private Duration geminiLatency = Duration.ofMillis(800);
+        private Duration geminiJitter = Duration.ofMillis(400);
+        private Duration geminiStreamInterval = Duration.ofMillis(50);
+        private double geminiFailureRate;
+
+        public Options host(String host) {
+            this.host = host;
+            return this;
+        }
+
+        public Options port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Options reposPerOwner(int reposPerOwner) {
+            this.reposPerOwner = reposPerOwner;
+            return this;
+        }
+
+        public Options filesPerRepo(int filesPerRepo) {
+            this.filesPerRepo = filesPerRepo;
+            return this;
+        }
+
+        public Options githubLatency(Duration latency, Duration jitter) {
+            this.githubLatency = latency;
+            this.githubJitter = jitter;
+            return this;
+        }
+
+        public Options githubFailureRate(double githubFailureRate) {
+            this.githubFailureRate = githubFailureRate;
+            return this;
+        }
+
+        public Options rateLimit(int requests, Duration window) {
+            this.rateLimit = requests;
+            this.rateLimitWindow = window;
+            return this;
+        }
+
+        public Options geminiLatency(Duration latency, Duration jitter) {
+            this.geminiLatency = latency;
+            this.geminiJitter = jitter;
+            return this;
+        }
+
+        public Options geminiStreamInterval(Duration geminiStreamInterval) {
+            this.geminiStreamInterval = geminiStreamInterval;
+            return this;
+        }
+
+        public Options geminiFailureRate(double geminiFailureRate) {
+            this.geminiFailureRate = geminiFailureRate;
+            return this;
+        }
+
+        /**
+         * Reads --name=value arguments: port, repos-per-owner, files-per-repo, github-latency-ms,
+         * github-jitter-ms, github-failure-rate, rate-limit, rate-limit-window-s, gemini-latency-ms,
+         * gemini-jitter-ms and gemini-failure-rate. Other arguments are ignored.
+         */
+        public static Options fromArgs(Map<String, String> args) {
+            Options options = new Options();
+            options.port = Integer.parseInt(args.getOrDefault("port", "0"));
+            options.reposPerOwner = Integer.parseInt(args.getOrDefault("repos-per-owner", String.valueOf(options.reposPerOwner)));
+            options.filesPerRepo = Integer.parseInt(args.getOrDefault("files-per-repo", String.valueOf(options.filesPerRepo)));
+            options.githubLatency = millis(args, "github-latency-ms", options.githubLatency);
+            options.githubJitter = millis(args, "github-jitter-ms", options.githubJitter);
+            options.githubFailureRate = Double.parseDouble(args.getOrDefault("github-failure-rate", "0"));
+            options.rateLimit = Integer.parseInt(args.getOrDefault("rate-limit", String.valueOf(options.rateLimit)));
+            options.rateLimitWindow = Duration.ofSeconds(Long.parseLong(args.getOrDefault("rate-limit-window-s",
+                    String.valueOf(options.rateLimitWindow.toSeconds()))));
+            options.geminiLatency = millis(args, "gemini-latency-ms", options.geminiLatency);
+            options.geminiJitter = millis(args, "gemini-jitter-ms", options.geminiJitter);
+            options.geminiFailureRate = Double.parseDouble(args.getOrDefault("gemini-failure-rate", "0"));
+            return options;
+        }
+
+        private static Duration millis(Map<String, String> args, String name, Duration defaultValue) {
+            String value = args.get(name);
+            return value == null ? defaultValue : Duration.ofMillis(Long.parseLong(value));
+        }
+    }
+
+    /**
+     * Runs the stand-in on its own, for pointing an analyzer started elsewhere at it.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        StandInServer server = start(Options.fromArgs(LoadTest.parseArgs(args)));
+        System.out.println("Stand-in GitHub and Gemini listening on " + server.baseUrl());
+        server.properties().forEach((key, value) -> System.out.println("  --" + key + "=" + value));
+        server.server.onDispose().block();
+    }
+}
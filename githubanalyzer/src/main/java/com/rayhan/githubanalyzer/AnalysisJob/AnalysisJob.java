@@ -0,0 +1,168 @@
+package com.rayhan.githubanalyzer.AnalysisJob;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "analysis_jobs", indexes = {
+        @Index(name = "idx_analysis_jobs_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_analysis_jobs_finished_at", columnList = "finished_at")
+})
+public class AnalysisJob {
+
+    public enum Type { REPO, PROFILE }
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    @Id
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    // The user the job counts against for the per-user limits
+    private String requester;
+
+    private String owner;
+    private String repo;
+    private String mode;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(columnDefinition = "text")
+    private String result;
+
+    @Column(columnDefinition = "text")
+    private String error;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    /**
+     * Detached snapshot of the current state, safe to hand out while a worker keeps updating the job.
+     */
+    public AnalysisJob copy() {
+        AnalysisJob copy = new AnalysisJob();
+        copy.id = id;
+        copy.type = type;
+        copy.requester = requester;
+        copy.owner = owner;
+        copy.repo = repo;
+        copy.mode = mode;
+        copy.status = status;
+        copy.result = result;
+        copy.error = error;
+        copy.createdAt = createdAt;
+        copy.startedAt = startedAt;
+        copy.finishedAt = finishedAt;
+        return copy;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getRequester() {
+        return requester;
+    }
+
+    public void setRequester(String requester) {
+        this.requester = requester;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getRepo() {
+        return repo;
+    }
+
+    public void setRepo(String repo) {
+        this.repo = repo;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
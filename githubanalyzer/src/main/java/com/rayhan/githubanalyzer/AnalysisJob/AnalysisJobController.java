@@ -0,0 +1,84 @@
+package com.rayhan.githubanalyzer.AnalysisJob;
+
+import com.rayhan.githubanalyzer.CreateReadMe.ReadMeGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Job based variants of /repo/overview and /repos/profileoverview. Submitting returns 202 with the
+ * queued job, whose id can then be polled or subscribed to for the generated README.
+ */
+@RestController
+@RequestMapping("/api/github/jobs")
+public class AnalysisJobController {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisJobController.class);
+
+    private final AnalysisJobService jobService;
+
+    public AnalysisJobController(AnalysisJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * Queues the README analysis of one repository. The job counts against the limits of username,
+     * or of the repository owner when no username is given.
+     */
+    @PostMapping("/repo-overview")
+    public Mono<ResponseEntity<Object>> submitRepoOverview(
+            @RequestParam String owner,
+            @RequestParam String repo,
+            @RequestParam(required = false) String username,
+            @RequestParam(defaultValue = ReadMeGenerator.MODE_AUTO) String mode) {
+
+        String requester = username != null && !username.isBlank() ? username : owner;
+        return accepted(jobService.submitRepo(requester, owner, repo, mode));
+    }
+
+    @PostMapping("/profile-overview")
+    public Mono<ResponseEntity<Object>> submitProfileOverview(
+            @RequestParam String username,
+            @RequestParam(defaultValue = ReadMeGenerator.MODE_AUTO) String mode) {
+
+        return accepted(jobService.submitProfile(username, mode));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<AnalysisJob>> getJob(@PathVariable String id) {
+        return jobService.find(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Server-Sent Events with the job's state, one event per change named after its status, until the
+     * job succeeds or fails.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<AnalysisJob>> streamJob(@PathVariable String id) {
+        return jobService.events(id)
+                .map(job -> ServerSentEvent.builder(job).event(job.getStatus().name().toLowerCase()).build());
+    }
+
+    private Mono<ResponseEntity<Object>> accepted(Mono<AnalysisJob> submitted) {
+        return submitted
+                .map(job -> ResponseEntity.accepted()
+                        .location(URI.create("/api/github/jobs/" + job.getId()))
+                        .<Object>body(job))
+                .onErrorResume(IllegalStateException.class, e ->
+                        Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).<Object>body(e.getMessage())))
+                .onErrorResume(e -> {
+                    log.error("Could not queue analysis job", e);
+                    return Mono.just(ResponseEntity.status(500).<Object>body("Could not queue analysis job: " + e.getMessage()));
+                });
+    }
+}
@@ -0,0 +1,21 @@
+package com.rayhan.githubanalyzer.AnalysisJob;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface AnalysisJobRepository extends JpaRepository<AnalysisJob, String> {
+
+    List<AnalysisJob> findByStatusInOrderByCreatedAtAsc(Collection<AnalysisJob.Status> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("delete from AnalysisJob j where j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,277 @@
+package com.rayhan.githubanalyzer.AnalysisJob;
+
+import com.rayhan.githubanalyzer.CreateReadMe.ReadMeAnalysisService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs README analyses as background jobs so clients do not hold a connection open for the whole
+ * crawl and Gemini call.
+ *
+ * Submitted jobs are persisted and queued in submission order. At most jobs.workers run at once and
+ * at most jobs.per-user-concurrency of them for the same user; a queued job whose user is already at
+ * the cap is skipped until one of that user's jobs finishes, so one user cannot fill every worker.
+ * Each user may have jobs.max-queued-per-user jobs waiting. Jobs that were queued or running when the
+ * application stopped are queued again on startup.
+ */
+@Service
+public class AnalysisJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    private static final List<AnalysisJob.Status> UNFINISHED = List.of(AnalysisJob.Status.QUEUED, AnalysisJob.Status.RUNNING);
+
+    private final AnalysisJobRepository repository;
+    private final ReadMeAnalysisService analysisService;
+    private final Scheduler jdbcScheduler;
+
+    // Waiting jobs in submission order, queue slots claimed by jobs still being saved and the running counts, all guarded by this
+    private final LinkedHashMap<String, AnalysisJob> queued = new LinkedHashMap<>();
+    private final Map<String, Integer> submittingByRequester = new HashMap<>();
+    private final Map<String, Integer> runningByRequester = new HashMap<>();
+    private int running;
+
+    // Live updates for unfinished jobs, replaying the latest state to new subscribers
+    private final Map<String, Sinks.Many<AnalysisJob>> updates = new ConcurrentHashMap<>();
+
+    @Value("${jobs.workers:4}")
+    private int workers;
+
+    @Value("${jobs.per-user-concurrency:1}")
+    private int perUserConcurrency;
+
+    @Value("${jobs.max-queued-per-user:10}")
+    private int maxQueuedPerUser;
+
+    @Value("${jobs.timeout-minutes:15}")
+    private long timeoutMinutes;
+
+    @Value("${jobs.retention-days:7}")
+    private long retentionDays;
+
+    public AnalysisJobService(AnalysisJobRepository repository, ReadMeAnalysisService analysisService, Scheduler jdbcScheduler) {
+        this.repository = repository;
+        this.analysisService = analysisService;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    public Mono<AnalysisJob> submitRepo(String requester, String owner, String repo, String mode) {
+        AnalysisJob job = newJob(AnalysisJob.Type.REPO, requester, mode);
+        job.setOwner(owner);
+        job.setRepo(repo);
+        return submit(job);
+    }
+
+    public Mono<AnalysisJob> submitProfile(String username, String mode) {
+        return submit(newJob(AnalysisJob.Type.PROFILE, username, mode));
+    }
+
+    public Mono<AnalysisJob> find(String id) {
+        return Mono.fromCallable(() -> repository.findById(id).orElse(null))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    /**
+     * The job's current state followed by every change until it finishes. A finished job emits its
+     * final state once; an unknown id completes empty.
+     */
+    public Flux<AnalysisJob> events(String id) {
+        Sinks.Many<AnalysisJob> sink = updates.get(id);
+        if (sink != null) {
+            return sink.asFlux();
+        }
+        return find(id).flatMapMany(job -> {
+            // The job may have been submitted between the lookup and the query
+            Sinks.Many<AnalysisJob> late = updates.get(id);
+            return late != null ? late.asFlux() : Flux.just(job);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<AnalysisJob> unfinished = repository.findByStatusInOrderByCreatedAtAsc(UNFINISHED);
+        if (unfinished.isEmpty()) {
+            return;
+        }
+
+        // Running jobs were cut off by the shutdown, start them over
+        for (AnalysisJob job : unfinished) {
+            job.setStatus(AnalysisJob.Status.QUEUED);
+            job.setStartedAt(null);
+        }
+        repository.saveAll(unfinished);
+
+        synchronized (this) {
+            unfinished.forEach(job -> queued.put(job.getId(), job));
+        }
+        unfinished.forEach(this::publish);
+        log.info("Recovered {} unfinished analysis jobs", unfinished.size());
+        dispatch();
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.eviction-interval-ms:3600000}")
+    public void evict() {
+        int deleted = repository.deleteFinishedBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+        if (deleted > 0) {
+            log.info("Deleted {} finished analysis jobs", deleted);
+        }
+    }
+
+    private AnalysisJob newJob(AnalysisJob.Type type, String requester, String mode) {
+        AnalysisJob job = new AnalysisJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setType(type);
+        job.setRequester(requester);
+        job.setMode(mode);
+        job.setStatus(AnalysisJob.Status.QUEUED);
+        job.setCreatedAt(Instant.now());
+        return job;
+    }
+
+    private Mono<AnalysisJob> submit(AnalysisJob job) {
+        return Mono.fromCallable(() -> {
+                    reserve(job.getRequester());
+                    boolean saved = false;
+                    try {
+                        repository.save(job);
+                        publish(job);
+                        saved = true;
+                    } finally {
+                        settle(job, saved);
+                    }
+                    return job;
+                })
+                .subscribeOn(jdbcScheduler)
+                .map(saved -> {
+                    log.info("Queued analysis job {} ({}) for {}", saved.getId(), saved.getType(), saved.getRequester());
+                    dispatch();
+                    return saved.copy();
+                });
+    }
+
+    /**
+     * Claims one of the user's queue slots before the job is saved, so concurrent submissions cannot
+     * all pass the check and exceed jobs.max-queued-per-user.
+     */
+    private synchronized void reserve(String requester) {
+        int count = submittingByRequester.getOrDefault(requester, 0);
+        for (AnalysisJob job : queued.values()) {
+            if (job.getRequester().equals(requester)) {
+                count++;
+            }
+        }
+        if (count >= maxQueuedPerUser) {
+            throw new IllegalStateException("Too many queued analysis jobs for " + requester + ", try again once some have finished.");
+        }
+        submittingByRequester.merge(requester, 1, Integer::sum);
+    }
+
+    /**
+     * Turns the reserved slot into a queued job once it is saved, or gives it back if saving failed.
+     */
+    private synchronized void settle(AnalysisJob job, boolean saved) {
+        submittingByRequester.computeIfPresent(job.getRequester(), (requester, pending) -> pending > 1 ? pending - 1 : null);
+        if (saved) {
+            queued.put(job.getId(), job);
+        }
+    }
+
+    /**
+     * Starts queued jobs, oldest first, while there are free workers and their user is below the cap.
+     */
+    private void dispatch() {
+        List<AnalysisJob> started = new ArrayList<>();
+        synchronized (this) {
+            Iterator<AnalysisJob> waiting = queued.values().iterator();
+            while (running < workers && waiting.hasNext()) {
+                AnalysisJob job = waiting.next();
+                int active = runningByRequester.getOrDefault(job.getRequester(), 0);
+                if (active >= perUserConcurrency) {
+                    continue;
+                }
+                waiting.remove();
+                running++;
+                runningByRequester.put(job.getRequester(), active + 1);
+                started.add(job);
+            }
+        }
+        started.forEach(this::run);
+    }
+
+    private void run(AnalysisJob job) {
+        job.setStatus(AnalysisJob.Status.RUNNING);
+        job.setStartedAt(Instant.now());
+
+        persist(job)
+                .then(Mono.defer(() -> analyze(job).timeout(Duration.ofMinutes(timeoutMinutes))))
+                .switchIfEmpty(Mono.error(new IllegalStateException("The analysis produced no README")))
+                .map(readMe -> {
+                    job.setStatus(AnalysisJob.Status.SUCCEEDED);
+                    job.setResult(readMe);
+                    return job;
+                })
+                .onErrorResume(e -> {
+                    log.warn("Analysis job {} failed: {}", job.getId(), e.getMessage());
+                    job.setStatus(AnalysisJob.Status.FAILED);
+                    job.setError(e.getMessage());
+                    return Mono.just(job);
+                })
+                .flatMap(finished -> {
+                    finished.setFinishedAt(Instant.now());
+                    return persist(finished);
+                })
+                .doFinally(signal -> {
+                    release(job);
+                    dispatch();
+                })
+                .subscribe(
+                        finished -> log.info("Analysis job {} {} in {} ms", finished.getId(), finished.getStatus(),
+                                Duration.between(finished.getStartedAt(), finished.getFinishedAt()).toMillis()),
+                        e -> log.error("Could not record analysis job {}", job.getId(), e));
+    }
+
+    private Mono<String> analyze(AnalysisJob job) {
+        if (job.getType() == AnalysisJob.Type.PROFILE) {
+            return analysisService.analyzeProfile(job.getRequester(), job.getMode())
+                    .map(ReadMeAnalysisService.ProfileReadMe::readMe);
+        }
+        return analysisService.analyzeRepo(job.getOwner(), job.getRepo(), job.getMode());
+    }
+
+    private Mono<AnalysisJob> persist(AnalysisJob job) {
+        return Mono.fromCallable(() -> {
+                    repository.save(job);
+                    return job;
+                })
+                .subscribeOn(jdbcScheduler)
+                .doOnNext(this::publish);
+    }
+
+    private synchronized void release(AnalysisJob job) {
+        running--;
+        runningByRequester.computeIfPresent(job.getRequester(), (requester, active) -> active > 1 ? active - 1 : null);
+    }
+
+    private void publish(AnalysisJob job) {
+        Sinks.Many<AnalysisJob> sink = updates.computeIfAbsent(job.getId(), id -> Sinks.many().replay().latest());
+        sink.tryEmitNext(job.copy());
+        if (job.isFinished()) {
+            sink.tryEmitComplete();
+            updates.remove(job.getId());
+        }
+    }
+}
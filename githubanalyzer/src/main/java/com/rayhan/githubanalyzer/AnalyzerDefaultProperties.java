@@ -0,0 +1,44 @@
+package com.rayhan.githubanalyzer;
+
+import org.springframework.boot.DefaultPropertiesPropertySource;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Default properties for every way the application is started, including tests and the in-process
+ * load test, since application.properties is not checked in. They are merged into the default
+ * properties, so application.properties, the environment and defaults the launcher already set all
+ * take precedence. Registered in META-INF/spring.factories so it runs before logging is configured.
+ */
+public class AnalyzerDefaultProperties implements EnvironmentPostProcessor {
+
+    static final Map<String, Object> DEFAULTS = Map.of(
+            // Carry the trace context across Reactor operators and scheduler hops, so logs and
+            // outgoing GitHub and Gemini calls keep the trace id of the request that started them
+            "spring.reactor.context-propagation", "auto",
+            "management.endpoints.web.exposure.include", "health,info,metrics,prometheus",
+            "management.metrics.distribution.percentiles-histogram.http.client.requests", "true",
+            "management.metrics.distribution.percentiles-histogram.readme.stage", "true",
+            "management.metrics.distribution.percentiles-histogram.gemini.requests", "true",
+            "management.tracing.sampling.probability", "0.1",
+            "logging.pattern.level", "%5p [${spring.application.name:},%X{traceId:-},%X{spanId:-}]",
+            // Gzip responses, including the NDJSON file streams, which are flushed line by line
+            "server.compression.enabled", "true",
+            "server.compression.mime-types", "text/html,text/xml,text/plain,text/css,text/javascript,application/javascript,"
+                    + "application/json,application/xml,application/x-ndjson");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        Map<String, Object> defaults = new LinkedHashMap<>(DEFAULTS);
+        PropertySource<?> existing = environment.getPropertySources().get(DefaultPropertiesPropertySource.NAME);
+        if (existing != null) {
+            defaults.keySet().removeIf(existing::containsProperty);
+        }
+        DefaultPropertiesPropertySource.addOrMerge(defaults, environment.getPropertySources());
+    }
+}
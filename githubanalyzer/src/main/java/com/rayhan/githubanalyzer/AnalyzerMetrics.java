@@ -0,0 +1,105 @@
+package com.rayhan.githubanalyzer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Meters for the stages of an analysis, from listing a repository to the Gemini call. Timers are
+ * tagged with the outcome of the stage: success, error or cancelled.
+ *
+ * GitHub calls themselves are measured by Spring's http.client.requests, tagged by uri template and
+ * status; the caches register their own hit and miss counters under cache.requests.
+ */
+@Component
+public class AnalyzerMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter rawBytes;
+    private final DistributionSummary promptChars;
+    private final DistributionSummary promptTokens;
+
+    public AnalyzerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.rawBytes = Counter.builder("github.raw.bytes")
+                .description("Bytes of file content downloaded from GitHub")
+                .baseUnit("bytes")
+                .register(registry);
+        this.promptChars = DistributionSummary.builder("readme.prompt.chars")
+                .description("Characters in the prompts sent to Gemini")
+                .register(registry);
+        this.promptTokens = DistributionSummary.builder("readme.prompt.tokens")
+                .description("Estimated tokens in the prompts sent to Gemini")
+                .register(registry);
+    }
+
+    public <T> Mono<T> timeStage(String stage, Mono<T> mono) {
+        return timed("readme.stage", Tags.of("stage", stage), mono);
+    }
+
+    public <T> Flux<T> timeStage(String stage, Flux<T> flux) {
+        return timed("readme.stage", Tags.of("stage", stage), flux);
+    }
+
+    public <T> Mono<T> timeGemini(String operation, Mono<T> mono) {
+        return timed("gemini.requests", Tags.of("operation", operation), mono);
+    }
+
+    public <T> Flux<T> timeGemini(String operation, Flux<T> flux) {
+        return timed("gemini.requests", Tags.of("operation", operation), flux);
+    }
+
+    public void geminiError(String reason) {
+        registry.counter("gemini.errors", "reason", reason).increment();
+    }
+
+    /**
+     * A repository file was read: from the blob cache, a raw download, an archive entry, or shared
+     * from a download of the same blob started for another repository. Only raw and archive reads
+     * count as downloaded bytes.
+     */
+    public void fileRead(String source, long bytes) {
+        registry.counter("github.files", "source", source).increment();
+        if ("raw".equals(source) || "archive".equals(source)) {
+            rawBytes.increment(bytes);
+        }
+    }
+
+    public void prompt(int chars, long estimatedTokens) {
+        promptChars.record(chars);
+        promptTokens.record(estimatedTokens);
+    }
+
+    public void cacheRequest(String cache, boolean hit) {
+        registry.counter("cache.requests", "cache", cache, "result", hit ? "hit" : "miss").increment();
+    }
+
+    private <T> Mono<T> timed(String name, Tags tags, Mono<T> mono) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return mono.doFinally(signal -> sample.stop(timer(name, tags, signal)));
+        });
+    }
+
+    private <T> Flux<T> timed(String name, Tags tags, Flux<T> flux) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return flux.doFinally(signal -> sample.stop(timer(name, tags, signal)));
+        });
+    }
+
+    private Timer timer(String name, Tags tags, SignalType signal) {
+        String outcome = switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            default -> "cancelled";
+        };
+        return registry.timer(name, tags.and("outcome", outcome));
+    }
+}
@@ -15,7 +15,8 @@ public class CorsConfig {
                 registry.addMapping("/api/**")
                         .allowedOrigins("http://localhost:3000")
                         .allowedMethods("GET", "POST", "DELETE", "PUT", "OPTIONS") // ✅ added needed methods
-                        .allowedHeaders("*"); // optional: allows all headers
+                        .allowedHeaders("*") // optional: allows all headers
+                        .exposedHeaders("Server-Timing", "X-Skipped-Repos");
             }
         };
     }
@@ -0,0 +1,196 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import com.rayhan.githubanalyzer.Github.BlobCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shrinks fetched files before they are assembled into a prompt by running them through the
+ * NormalizationStage beans in order. Files a stage drops are left out entirely.
+ *
+ * Identical files are only kept once per request, also across repositories (forks, templates and
+ * copied projects share a lot of files). The first copy is kept and starts with a note listing where
+ * the other copies are, so the prompt still tells which repositories contain the file.
+ *
+ * The output of the cacheable stages is stored in the blob cache under the blob SHA of the input and
+ * its extension, so an unchanged file is only normalized once. Bytes saved and files dropped are
+ * counted per stage.
+ */
+@Component
+public class ContentNormalizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentNormalizer.class);
+
+    // Bump when a cacheable stage changes its output so stale entries are not reused
+    private static final String CACHE_KEY_PREFIX = "normalized-v1:";
+    private static final String DUPLICATE = "duplicate";
+    private static final String SHARED = "duplicate-across-repos";
+    private static final int MAX_LISTED_COPIES = 10;
+
+    private final List<NormalizationStage> stages;
+    private final BlobCache blobCache;
+    private final Map<String, StageStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    @Value("${readme.normalize.enabled:true}")
+    private boolean enabled;
+
+    public ContentNormalizer(List<NormalizationStage> stages, BlobCache blobCache, MeterRegistry registry) {
+        this.stages = stages;
+        this.blobCache = blobCache;
+        stages.forEach(stage -> stats.put(stage.getName(), new StageStats()));
+        stats.put(DUPLICATE, new StageStats());
+        stats.put(SHARED, new StageStats());
+
+        stats.forEach((name, stageStats) -> {
+            FunctionCounter.builder("readme.normalize.saved.bytes", stageStats.bytesSaved, AtomicLong::get)
+                    .description("Bytes removed from prompt content by each normalization stage")
+                    .baseUnit("bytes")
+                    .tag("stage", name)
+                    .register(registry);
+            FunctionCounter.builder("readme.normalize.dropped.files", stageStats.filesDropped, AtomicLong::get)
+                    .description("Files dropped from prompts by each normalization stage")
+                    .tag("stage", name)
+                    .register(registry);
+        });
+    }
+
+    public Map<String, Map<String, String>> normalize(Map<String, Map<String, String>> repos) {
+        if (!enabled) {
+            return repos;
+        }
+
+        long before = 0;
+        int shared = 0;
+        Map<String, Map<String, String>> normalized = new LinkedHashMap<>();
+        Map<String, FirstCopy> firstCopies = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> repo : repos.entrySet()) {
+            Map<String, String> files = new LinkedHashMap<>();
+            for (Map.Entry<String, String> file : repo.getValue().entrySet()) {
+                before += file.getValue().length();
+                String content = normalizeFile(file.getKey(), file.getValue());
+                if (content == null) {
+                    continue;
+                }
+
+                FirstCopy first = firstCopies.putIfAbsent(ReadMeService.sha256(content), new FirstCopy(repo.getKey(), file.getKey()));
+                if (first != null) {
+                    boolean otherRepo = !first.repo().equals(repo.getKey());
+                    stats.get(otherRepo ? SHARED : DUPLICATE).record(content.getBytes(StandardCharsets.UTF_8).length, true);
+                    first.copies().add(location(repo.getKey(), file.getKey()));
+                    shared += otherRepo ? 1 : 0;
+                    continue;
+                }
+                files.put(file.getKey(), content);
+            }
+            normalized.put(repo.getKey(), files);
+        }
+
+        firstCopies.values().stream()
+                .filter(first -> !first.copies().isEmpty())
+                .forEach(first -> normalized.get(first.repo()).computeIfPresent(first.path(),
+                        (path, content) -> copiesNote(first.copies()) + content));
+
+        long after = normalized.values().stream()
+                .flatMap(files -> files.values().stream())
+                .mapToLong(String::length)
+                .sum();
+        if (before > 0) {
+            log.info("Normalized repository files from {} to {} chars ({}% smaller){}", before, after, 100 - after * 100 / before,
+                    shared > 0 ? ", " + shared + " files shared with another repository were included once" : "");
+        }
+        return normalized;
+    }
+
+    private String copiesNote(List<String> copies) {
+        String listed = String.join(", ", copies.subList(0, Math.min(copies.size(), MAX_LISTED_COPIES)));
+        if (copies.size() > MAX_LISTED_COPIES) {
+            listed += " and " + (copies.size() - MAX_LISTED_COPIES) + " more";
+        }
+        return "[Identical copies of this file: " + listed + "]\n";
+    }
+
+    private String location(String repo, String path) {
+        return repo.isEmpty() ? path : repo + "/" + path;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        stats.forEach((name, stage) -> result.put(name, Map.of(
+                "bytesSaved", stage.bytesSaved.get(),
+                "filesDropped", stage.filesDropped.get())));
+        result.put("cacheHits", cacheHits.get());
+        return result;
+    }
+
+    private String normalizeFile(String path, String content) {
+        String current = content;
+        for (NormalizationStage stage : stages) {
+            if (!stage.isCacheable()) {
+                current = applyStage(stage, path, current);
+                if (current == null) {
+                    return null;
+                }
+            }
+        }
+
+        String cacheKey = CACHE_KEY_PREFIX + extension(path) + ":" + BlobCache.gitBlobSha(current.getBytes(StandardCharsets.UTF_8));
+        Optional<String> cached = blobCache.get(cacheKey);
+        if (cached.isPresent()) {
+            cacheHits.incrementAndGet();
+            return cached.get();
+        }
+
+        for (NormalizationStage stage : stages) {
+            if (stage.isCacheable()) {
+                current = applyStage(stage, path, current);
+                if (current == null) {
+                    return null;
+                }
+            }
+        }
+        blobCache.put(cacheKey, current);
+        return current;
+    }
+
+    private String applyStage(NormalizationStage stage, String path, String content) {
+        String result = stage.apply(path, content);
+        long saved = content.getBytes(StandardCharsets.UTF_8).length
+                - (result == null ? 0 : result.getBytes(StandardCharsets.UTF_8).length);
+        stats.get(stage.getName()).record(saved, result == null);
+        return result;
+    }
+
+    private String extension(String path) {
+        int lastDot = path.lastIndexOf('.');
+        return lastDot < path.lastIndexOf('/') + 1 ? "" : path.substring(lastDot + 1).toLowerCase();
+    }
+
+    private record FirstCopy(String repo, String path, List<String> copies) {
+
+        FirstCopy(String repo, String path) {
+            this(repo, path, new ArrayList<>());
+        }
+    }
+
+    private static final class StageStats {
+        private final AtomicLong bytesSaved = new AtomicLong();
+        private final AtomicLong filesDropped = new AtomicLong();
+
+        void record(long saved, boolean dropped) {
+            bytesSaved.addAndGet(saved);
+            if (dropped) {
+                filesDropped.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Removes a license or copyright comment at the top of a file. Only the first comment block is
+ * looked at, and only when it mentions a license, so ordinary file documentation is kept.
+ */
+@Component
+@Order(30)
+public class LicenseHeaderStripper implements NormalizationStage {
+
+    private static final Pattern LICENSE = Pattern.compile(
+            "licen[cs]e|copyright|spdx-license-identifier|all rights reserved", Pattern.CASE_INSENSITIVE);
+
+    @Override
+    public String getName() {
+        return "license-header";
+    }
+
+    @Override
+    public String apply(String path, String content) {
+        // Keep a shebang line in place
+        int start = content.startsWith("#!") ? lineEnd(content, 0) : 0;
+        int headerStart = skipBlankLines(content, start);
+
+        int headerEnd;
+        if (content.startsWith("/*", headerStart)) {
+            int close = content.indexOf("*/", headerStart + 2);
+            if (close < 0) {
+                return content;
+            }
+            headerEnd = lineEnd(content, close + 2);
+        } else if (content.startsWith("//", headerStart) || (path.endsWith(".py") && content.startsWith("#", headerStart))) {
+            // "#" only starts a comment in Python, in C it is a preprocessor directive
+            String prefix = content.startsWith("//", headerStart) ? "//" : "#";
+            headerEnd = headerStart;
+            while (headerEnd < content.length() && content.startsWith(prefix, headerEnd)) {
+                headerEnd = lineEnd(content, headerEnd);
+            }
+        } else {
+            return content;
+        }
+
+        if (!LICENSE.matcher(content.substring(headerStart, headerEnd)).find()) {
+            return content;
+        }
+        return content.substring(0, start) + content.substring(skipBlankLines(content, headerEnd));
+    }
+
+    // Index just past the newline ending the line that contains from
+    private int lineEnd(String content, int from) {
+        int newline = content.indexOf('\n', from);
+        return newline < 0 ? content.length() : newline + 1;
+    }
+
+    private int skipBlankLines(String content, int from) {
+        int position = from;
+        while (position < content.length()) {
+            int end = lineEnd(content, position);
+            if (!content.substring(position, end).isBlank()) {
+                break;
+            }
+            position = end;
+        }
+        return position;
+    }
+}
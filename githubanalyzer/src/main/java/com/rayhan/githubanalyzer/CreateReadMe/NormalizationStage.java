@@ -0,0 +1,22 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+/**
+ * One step of the ContentNormalizer pipeline. Stages are Spring beans and run in @Order.
+ */
+public interface NormalizationStage {
+
+    String getName();
+
+    /**
+     * Whether the output depends only on the content and the file extension, so it may be cached by
+     * blob SHA. Stages that look at the full path have to run on every call.
+     */
+    default boolean isCacheable() {
+        return true;
+    }
+
+    /**
+     * Returns the normalized content, or null to leave the file out of the prompt.
+     */
+    String apply(String path, String content);
+}
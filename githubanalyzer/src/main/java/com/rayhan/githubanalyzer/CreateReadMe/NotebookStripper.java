@@ -0,0 +1,104 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Reduces a Jupyter notebook to its code and markdown cells in the "# %%" percent format. The
+ * notebook is read with a streaming parser, so outputs, embedded images and metadata are skipped
+ * without ever being materialized.
+ */
+@Component
+@Order(20)
+public class NotebookStripper implements NormalizationStage {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Override
+    public String getName() {
+        return "notebook";
+    }
+
+    @Override
+    public String apply(String path, String content) {
+        if (!path.endsWith(".ipynb")) {
+            return content;
+        }
+
+        StringBuilder out = new StringBuilder();
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return content;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("cells".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readCell(parser, out);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            // Not a valid notebook, keep it as it is
+            return content;
+        }
+        return out.toString();
+    }
+
+    private void readCell(JsonParser parser, StringBuilder out) throws IOException {
+        String type = null;
+        String source = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("cell_type".equals(field)) {
+                type = parser.getValueAsString();
+            } else if ("source".equals(field)) {
+                source = readSource(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (source == null || source.isBlank()) {
+            return;
+        }
+        if ("code".equals(type)) {
+            out.append("# %%\n");
+        } else if ("markdown".equals(type)) {
+            out.append("# %% [markdown]\n");
+        } else {
+            return;
+        }
+        out.append(source.strip()).append("\n\n");
+    }
+
+    // A cell source is either one string or an array of lines
+    private String readSource(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        StringBuilder source = new StringBuilder();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token == JsonToken.VALUE_STRING) {
+                source.append(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return source.toString();
+    }
+}
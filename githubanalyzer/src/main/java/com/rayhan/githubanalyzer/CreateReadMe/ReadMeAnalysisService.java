@@ -0,0 +1,428 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import com.rayhan.githubanalyzer.AnalyzerMetrics;
+import com.rayhan.githubanalyzer.Github.ChangedFile;
+import com.rayhan.githubanalyzer.Github.CommitComparison;
+import com.rayhan.githubanalyzer.Github.GithubService;
+import com.rayhan.githubanalyzer.Github.RepoFetch;
+import com.rayhan.githubanalyzer.Github.RepoHead;
+import com.rayhan.githubanalyzer.UserRepo.GeneratedReadMe;
+import com.rayhan.githubanalyzer.UserRepo.UserRepo;
+import com.rayhan.githubanalyzer.UserRepo.UserRepoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The README analysis flow shared by the HTTP endpoints and the background job workers: resolve
+ * the repository's current tree, answer from the README cache when it is unchanged, otherwise fetch
+ * the files, generate a README with Gemini and cache it.
+ *
+ * A repository analyzed before is updated incrementally: the commit its last README was generated
+ * from is compared with the current head, and only the added and modified files are sent to Gemini
+ * together with that README. It falls back to a full analysis when the history was rewritten, more
+ * than readme.incremental.max-files analyzable files changed or a changed file cannot be read, and
+ * after readme.incremental.max-updates incremental updates in a row so their drift does not pile up.
+ *
+ * Problems with the request itself (no saved repositories, no code files) are signalled as
+ * IllegalArgumentException so callers can report them as bad requests.
+ */
+@Service
+public class ReadMeAnalysisService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadMeAnalysisService.class);
+
+    private final GithubService githubService;
+    private final UserRepoService userRepoService;
+    private final ReadMeGenerator readMeGenerator;
+    private final ReadMeCacheService readMeCache;
+    private final AnalyzerMetrics metrics;
+
+    @Value("${readme.incremental.enabled:true}")
+    private boolean incrementalEnabled;
+
+    @Value("${readme.incremental.max-files:40}")
+    private int incrementalMaxFiles;
+
+    // Incremental updates in a row before the README is regenerated in full, so their drift does not pile up
+    @Value("${readme.incremental.max-updates:5}")
+    private int incrementalMaxUpdates;
+
+    public ReadMeAnalysisService(GithubService githubService, UserRepoService userRepoService,
+                                 ReadMeGenerator readMeGenerator, ReadMeCacheService readMeCache,
+                                 AnalyzerMetrics metrics) {
+        this.githubService = githubService;
+        this.userRepoService = userRepoService;
+        this.readMeGenerator = readMeGenerator;
+        this.readMeCache = readMeCache;
+        this.metrics = metrics;
+    }
+
+    public Mono<String> analyzeRepo(String owner, String repo, String mode) {
+        String instructions = repoOverviewInstructions();
+
+        return metrics.timeStage("head", githubService.getRepoHead(owner, repo))
+                .flatMap(head -> {
+                    Mono<String> generate = fetchRepo(owner, repo)
+                            .flatMap(files -> {
+                                log.info("Calling Gemini Service for analysis...");
+                                return readMeGenerator.generate(instructions, files, mode);
+                            });
+                    if (!head.isResolved()) {
+                        log.warn("No commit or tree SHA for {}/{}, analyzing without the README cache", owner, repo);
+                        return generate;
+                    }
+
+                    return readMeCache.find(owner, repo, head.getTreeSha(), instructions)
+                            .switchIfEmpty(Mono.defer(() -> updateReadMe(owner, repo, head, instructions)
+                                    .switchIfEmpty(generate.map(readMe -> new Revision(readMe, 0)))
+                                    .flatMap(revision -> readMeCache.save(owner, repo, head.getTreeSha(), head.getCommitSha(),
+                                                    instructions, revision.content(), revision.incrementalUpdates())
+                                            .thenReturn(revision.content()))));
+                });
+    }
+
+    public Flux<String> streamRepo(String owner, String repo, String mode) {
+        String instructions = repoOverviewInstructions();
+
+        return metrics.timeStage("head", githubService.getRepoHead(owner, repo))
+                .flatMapMany(head -> {
+                    AtomicInteger incrementalUpdates = new AtomicInteger();
+
+                    return cachedStream(owner, repo, head.isResolved() ? head.getTreeSha() : null, head.getCommitSha(), instructions, () ->
+                            // An incremental update is short, it is sent in one piece rather than streamed
+                            updateReadMe(owner, repo, head, instructions)
+                                    .doOnNext(revision -> incrementalUpdates.set(revision.incrementalUpdates()))
+                                    .map(Revision::content)
+                                    .flux()
+                                    .switchIfEmpty(Flux.defer(() -> fetchRepo(owner, repo)
+                                            .flatMapMany(files -> readMeGenerator.stream(instructions, files, mode)))),
+                            () -> true, incrementalUpdates::get);
+                });
+    }
+
+    /**
+     * Profile README from all of the user's saved repositories, across every owner they belong to.
+     * Repositories that cannot be fetched are skipped; the result lists how each one went.
+     */
+    public Mono<ProfileReadMe> analyzeProfile(String username, String mode) {
+        return resolveProfile(username)
+                .flatMap(profile -> {
+                    String instructions = profileInstructions(profile.name(), profile.repoCount());
+                    String profileKey = ReadMeCacheService.profileKey(profile.repoKeys());
+
+                    return combinedTreeSha(profile)
+                            .flatMap(treeSha -> {
+                                Mono<ProfileReadMe> generate = fetchProfile(profile)
+                                        .flatMap(fetched -> {
+                                            log.info("Calling Gemini Service for multi-repository analysis...");
+                                            return readMeGenerator.generate(instructions, fetched.contents(), mode)
+                                                    .flatMap(readMe -> (fetched.complete() && treeSha.isPresent()
+                                                            ? readMeCache.save(profile.name(), profileKey, treeSha.get(), null, instructions, readMe)
+                                                            : Mono.<Void>empty())
+                                                            .thenReturn(new ProfileReadMe(readMe, fetched.fetches())));
+                                        });
+                                return treeSha
+                                        .map(sha -> readMeCache.find(profile.name(), profileKey, sha, instructions)
+                                                .map(readMe -> new ProfileReadMe(readMe, List.of()))
+                                                .switchIfEmpty(generate))
+                                        .orElse(generate);
+                            });
+                });
+    }
+
+    public Flux<String> streamProfile(String username, String mode) {
+        return resolveProfile(username)
+                .flatMapMany(profile -> {
+                    String instructions = profileInstructions(profile.name(), profile.repoCount());
+                    String profileKey = ReadMeCacheService.profileKey(profile.repoKeys());
+                    AtomicBoolean complete = new AtomicBoolean();
+
+                    return combinedTreeSha(profile)
+                            .flatMapMany(treeSha -> cachedStream(profile.name(), profileKey, treeSha.orElse(null), null, instructions, () ->
+                                    fetchProfile(profile)
+                                            .doOnNext(fetched -> complete.set(fetched.complete()))
+                                            .flatMapMany(fetched -> readMeGenerator.stream(instructions, fetched.contents(), mode)),
+                                    complete::get, () -> 0));
+                });
+    }
+
+    /**
+     * The README for head, updated from the last one generated for this repository and the files
+     * changed since its commit. Empty when there is nothing to start from, the change is too big, a
+     * changed file cannot be read or the last one was already updated readme.incremental.max-updates
+     * times in a row; the caller then runs a full analysis.
+     */
+    private Mono<Revision> updateReadMe(String owner, String repo, RepoHead head, String instructions) {
+        if (!incrementalEnabled || !head.isResolved()) {
+            return Mono.empty();
+        }
+
+        return metrics.timeStage("incremental", readMeCache.findLatest(owner, repo, instructions)
+                .flatMap(previous -> githubService.compareCommits(owner, repo, previous.getCommitSha(), head.getCommitSha())
+                        .flatMap(comparison -> updateReadMe(owner, repo, head, previous, comparison)))
+                .onErrorResume(e -> {
+                    log.warn("Incremental update of {}/{} failed, running a full analysis: {}", owner, repo, e.getMessage());
+                    return Mono.empty();
+                }));
+    }
+
+    private Mono<Revision> updateReadMe(String owner, String repo, RepoHead head, GeneratedReadMe previous, CommitComparison comparison) {
+        String range = previous.getCommitSha().substring(0, Math.min(7, previous.getCommitSha().length())) + ".."
+                + head.getCommitSha().substring(0, Math.min(7, head.getCommitSha().length()));
+        List<ChangedFile> changed = comparison.getAnalyzableFiles();
+
+        if (!comparison.isFastForward() || !comparison.isComplete() || changed.size() > incrementalMaxFiles) {
+            log.info("Changes to {}/{} in {} are too large for an incremental update ({}, {} files)",
+                    owner, repo, range, comparison.getStatus(), changed.size());
+            return Mono.empty();
+        }
+        if (changed.isEmpty()) {
+            // Only files the analysis never reads changed, the README still describes the code
+            log.info("No analyzed files of {}/{} changed in {}, reusing its README", owner, repo, range);
+            return Mono.just(new Revision(previous.getContent(), previous.getIncrementalUpdates()));
+        }
+        if (previous.getIncrementalUpdates() >= incrementalMaxUpdates) {
+            log.info("README of {}/{} was updated incrementally {} times in a row, regenerating it in full",
+                    owner, repo, previous.getIncrementalUpdates());
+            return Mono.empty();
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (ChangedFile file : changed) {
+            if (file.isRemoved()) {
+                removed.add(file.getFilename());
+            } else if (file.getPrevious_filename() != null) {
+                removed.add(file.getPrevious_filename() + " (renamed to " + file.getFilename() + ")");
+            }
+        }
+
+        return githubService.getChangedContents(owner, repo, head.getCommitSha(), changed)
+                .flatMap(files -> {
+                    log.info("Updating README of {}/{} from {} changed and {} removed files in {}",
+                            owner, repo, files.size(), removed.size(), range);
+                    return readMeGenerator.update(previous.getContent(), files, removed);
+                })
+                .map(readMe -> new Revision(readMe, previous.getIncrementalUpdates() + 1));
+    }
+
+    private Mono<Map<String, Map<String, String>>> fetchRepo(String owner, String repo) {
+        // Pass an empty string ("") as the initial path for the root of the repository.
+        return metrics.timeStage("fetch", githubService.getRepoContents(owner, repo, ""))
+                .flatMap(consolidatedGitHubData -> {
+                    if (consolidatedGitHubData == null || consolidatedGitHubData.isEmpty()) {
+                        return Mono.error(new IllegalArgumentException("Could not retrieve any valid code files from " + owner + "/" + repo + " for analysis."));
+                    }
+                    return Mono.just(Map.of("", consolidatedGitHubData));
+                });
+    }
+
+    private Mono<ProfileContents> fetchProfile(Profile profile) {
+        return metrics.timeStage("fetch", githubService.fetchRepos(profile.reposByOwner()).collectList())
+                .flatMap(fetches -> {
+                    Map<String, Map<String, String>> contents = new LinkedHashMap<>();
+                    for (RepoFetch fetch : fetches) {
+                        if (fetch.isSucceeded() && !fetch.getContents().isEmpty()) {
+                            contents.put(profile.repoKey(fetch.getOwner(), fetch.getRepo()), fetch.getContents());
+                        }
+                    }
+                    if (contents.isEmpty()) {
+                        return Mono.error(new IllegalArgumentException("Could not retrieve any valid code files from saved repositories for analysis."));
+                    }
+                    // Repositories without analyzable files do not make the result partial, only failed fetches do
+                    long failed = fetches.stream().filter(fetch -> !fetch.isSucceeded()).count();
+                    if (failed > 0) {
+                        log.info("Analyzing {} of {} saved repos, {} could not be fetched", contents.size(), profile.repoCount(), failed);
+                    }
+                    return Mono.just(new ProfileContents(contents, fetches, failed == 0));
+                });
+    }
+
+    private Mono<Profile> resolveProfile(String username) {
+        return userRepoService.getRepoByUsername(username)
+                .collectList()
+                .flatMap(savedRepos -> {
+                    if (savedRepos == null || savedRepos.isEmpty()) {
+                        return Mono.error(new IllegalArgumentException("No saved repositories found for user: " + username));
+                    }
+
+                    // Group repositories by owner (in case user has saved repos from different owners)
+                    Map<String, List<String>> reposByOwner = savedRepos.stream()
+                            .collect(Collectors.groupingBy(
+                                    UserRepo::getUsername,
+                                    TreeMap::new,
+                                    Collectors.mapping(UserRepo::getName, Collectors.toList())
+                            ));
+
+                    // A single owner is who the profile is about, otherwise it is the user's own collection
+                    String name = reposByOwner.size() == 1 ? reposByOwner.keySet().iterator().next() : username;
+                    Profile profile = new Profile(name, reposByOwner);
+                    log.info("Analyzing {} saved repos for {} from owners: {}", profile.repoCount(), username, reposByOwner.keySet());
+                    return Mono.just(profile);
+                });
+    }
+
+    /**
+     * Cache key tree SHA over all of the profile's repositories. Repositories whose head cannot be read
+     * are left out of it, the same way they are left out of the README. Empty when a head was read but
+     * came without its SHAs, since the key could then not tell when that repository changes.
+     */
+    private Mono<Optional<String>> combinedTreeSha(Profile profile) {
+        return metrics.timeStage("head", Flux.fromIterable(profile.reposByOwner().entrySet())
+                .flatMap(owner -> Flux.fromIterable(owner.getValue())
+                        .flatMap(name -> githubService.getRepoHead(owner.getKey(), name)
+                                .map(head -> head.isResolved()
+                                        ? Optional.of(profile.repoKey(owner.getKey(), name) + ":" + head.getTreeSha())
+                                        : Optional.<String>empty())
+                                .onErrorResume(e -> {
+                                    log.warn("Could not read head of {}/{}: {}", owner.getKey(), name, e.getMessage());
+                                    return Mono.empty();
+                                })))
+                .collectList())
+                .map(heads -> heads.stream().anyMatch(Optional::isEmpty)
+                        ? Optional.empty()
+                        : Optional.of(ReadMeCacheService.combinedTreeSha(heads.stream().map(Optional::get).toList())));
+    }
+
+    /**
+     * Emits the cached README as one chunk, or streams a fresh one and caches it once it completed,
+     * if cacheable still holds by then, along with the incremental updates it was produced by. Without
+     * a tree SHA the cache is bypassed.
+     */
+    private Flux<String> cachedStream(String owner, String repoKey, String treeSha, String commitSha, String instructions,
+                                      Supplier<Flux<String>> generate, BooleanSupplier cacheable, IntSupplier incrementalUpdates) {
+        if (treeSha == null) {
+            return Flux.defer(generate);
+        }
+        return readMeCache.find(owner, repoKey, treeSha, instructions)
+                .flux()
+                .switchIfEmpty(Flux.defer(() -> {
+                    StringBuilder generated = new StringBuilder();
+                    return generate.get()
+                            .doOnNext(generated::append)
+                            .concatWith(Mono.defer(() -> cacheable.getAsBoolean()
+                                            ? readMeCache.save(owner, repoKey, treeSha, commitSha, instructions, generated.toString(),
+                                                    incrementalUpdates.getAsInt())
+                                            : Mono.<Void>empty())
+                                    .then(Mono.<String>empty()));
+                }));
+    }
+
+    static String repoOverviewInstructions() {
+        return "You are an experienced software engineer tasked with generating a professional README.md for this repository. " +
+                "Assume you wrote the code yourself and want to help other developers understand the project. " +
+                "Your README should include the following sections:\n\n" +
+
+                "1. **Project Overview** – Briefly describe the main purpose of the application.\n" +
+                "2. **Tech Stack** – Identify the main programming languages, frameworks, and libraries used.\n" +
+                "3. **Architecture** – Describe how the project is structured (e.g., frontend/backend split, monolithic, microservices).\n" +
+                "4. **Core Features** – List 3 features and explain the key functionalities of the application, why they are important to the overall product \n" +
+                "5. **Design Patterns** – Note any design patterns or anti-patterns observed in the codebase.\n" +
+                "6. **Improvement Suggestions** – Recommend any improvements in code quality, performance, or potential new features that could be implemented to help grow or expand project.\n\n" +
+
+                "Make the README clean, concise, and written in Markdown format. Use bullet points and sections where helpful. " +
+                "Use headings (##, ###) and emojis to organize the content clearly.\n\n" +
+
+                "---\n\n" +
+                "📦 Codebase Snapshot (Path → Content):\n\n";
+    }
+
+    private String profileInstructions(String owner, int repoCount) {
+        return "You are creating a GitHub profile README.md that showcases " + owner + "'s developer skills and competencies. " +
+                "Analyze the code from their " + repoCount + " repositories to understand their technical abilities, preferred technologies, and coding style. " +
+                "Create a professional developer bio/profile README similar to popular GitHub profiles.\n\n" +
+                "Speak as if you were the developer of the repositories, make sure the descriptions are in first person.\n\n" +
+
+                "Generate a README with this structure and styling:\n\n" +
+
+                "# <h1 align=\"center\">Hi 👋 I'm " + owner + "</h1>\n\n" +
+
+                "## 💫 About Me:\n" +
+                "Write a compelling developer bio based on the technologies and patterns you see in their code. " +
+                "Mention their apparent specializations, interests, and what kind of developer they appear to be.\n\n" +
+
+                "## 🚀 What I'm Working With\n" +
+                "Based on their repositories, mention specific technologies they're actively using:\n" +
+                "- 🤖 Working with [specific framework/technology]\n" +
+                "- 💻 Building applications with [tech stack]\n" +
+                "- 🔧 Exploring [emerging technologies they use]\n\n" +
+
+                "## 💻 Tech Stack:\n" +
+                "Create comprehensive badge sections based on technologies found in their code:\n\n" +
+                "**Languages:**\n" +
+                "![Language](https://img.shields.io/badge/language-color?style=for-the-badge&logo=language&logoColor=white)\n" +
+                "(Generate actual badges for each language you identify)\n\n" +
+
+                "**Frameworks & Libraries:**\n" +
+                "![Framework](https://img.shields.io/badge/framework-color?style=for-the-badge&logo=framework&logoColor=white)\n" +
+                "(Generate badges for frameworks, libraries, and tools they use)\n\n" +
+
+                "**Developer Tools:**\n" +
+                "![Tool](https://img.shields.io/badge/tool-color?style=for-the-badge&logo=tool&logoColor=white)\n" +
+                "(Include development tools, databases, cloud services, etc.)\n\n" +
+
+                "## 🎯 Development Focus\n" +
+                "Based on their code patterns and project types, describe their development focus areas:\n" +
+                "- Backend development\n" +
+                "- Frontend frameworks\n" +
+                "- Full-stack applications\n" +
+                "- DevOps practices\n" +
+                "- etc.\n\n" +
+
+                "## 🌟 Coding Style & Patterns\n" +
+                "Highlight notable patterns, architectures, or best practices you observe in their code.\n\n" +
+
+                "## 📈 GitHub Stats\n" +
+                "Add placeholders for GitHub stats widgets (common in profile READMEs).\n\n" +
+
+                "Focus on showcasing " + owner + " as a developer - their skills, technologies, and expertise. " +
+                "Use modern GitHub profile styling with lots of emojis and shield.io badges. " +
+                "Make it personal and engaging while highlighting their technical competencies.\n\n" +
+
+                "---\n\n" +
+                "📦 Multi-Repository Codebase Snapshot:\n\n";
+    }
+
+    /**
+     * A generated profile README and how fetching each repository went. fetches is empty when the
+     * README came from the cache.
+     */
+    public record ProfileReadMe(String readMe, List<RepoFetch> fetches) {
+    }
+
+    private record Profile(String name, Map<String, List<String>> reposByOwner) {
+
+        int repoCount() {
+            return reposByOwner.values().stream().mapToInt(List::size).sum();
+        }
+
+        // Repositories are named as before for a single owner, and qualified by owner otherwise
+        String repoKey(String owner, String repo) {
+            return reposByOwner.size() == 1 ? repo : owner + "/" + repo;
+        }
+
+        List<String> repoKeys() {
+            List<String> keys = new ArrayList<>();
+            reposByOwner.forEach((owner, repos) -> repos.forEach(repo -> keys.add(repoKey(owner, repo))));
+            return keys;
+        }
+    }
+
+    // A README and how many incremental updates in a row produced it, 0 after a full generation
+    private record Revision(String content, int incrementalUpdates) {
+    }
+
+    private record ProfileContents(Map<String, Map<String, String>> contents, List<RepoFetch> fetches, boolean complete) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import com.rayhan.githubanalyzer.AnalyzerMetrics;
+import com.rayhan.githubanalyzer.UserRepo.GeneratedReadMe;
+import com.rayhan.githubanalyzer.UserRepo.GeneratedReadMeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Stores generated READMEs in Postgres so an unchanged repository is answered without calling
+ * GitHub for its files or Gemini at all.
+ *
+ * Results are keyed by (owner, repo, tree SHA, prompt-template hash, model id): a new commit that
+ * changes the tree, an edited prompt or a different model each produce a fresh entry. Repository
+ * READMEs also record the commit they were generated from, so the next one can be produced from the
+ * diff since that commit (see ReadMeAnalysisService). Rows older than readme.cache.max-age-days are
+ * deleted, and only the newest readme.cache.max-rows are kept.
+ */
+@Service
+public class ReadMeCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadMeCacheService.class);
+
+    private final GeneratedReadMeRepository repository;
+    private final ReadMeService geminiService;
+    private final Scheduler jdbcScheduler;
+    private final AnalyzerMetrics metrics;
+
+    @Value("${readme.cache.max-age-days:30}")
+    private long maxAgeDays;
+
+    @Value("${readme.cache.max-rows:10000}")
+    private int maxRows;
+
+    public ReadMeCacheService(GeneratedReadMeRepository repository, ReadMeService geminiService, Scheduler jdbcScheduler,
+                              AnalyzerMetrics metrics) {
+        this.repository = repository;
+        this.geminiService = geminiService;
+        this.jdbcScheduler = jdbcScheduler;
+        this.metrics = metrics;
+    }
+
+    public Mono<String> find(String owner, String repo, String treeSha, String instructions) {
+        String templateHash = ReadMeService.sha256(instructions);
+        // A null result from the callable completes the Mono empty
+        return metrics.timeStage("cache", Mono.fromCallable(() -> repository.findFirstByOwnerAndRepoAndTreeShaAndTemplateHashAndModelId(
+                                owner, repo, treeSha, templateHash, geminiService.getModelId())
+                        .map(GeneratedReadMe::getContent)
+                        .orElse(null))
+                        .subscribeOn(jdbcScheduler))
+                .doOnSuccess(content -> metrics.cacheRequest("readme", content != null))
+                .doOnNext(content -> log.info("Serving cached README for {}/{} at tree {}", owner, repo, treeSha));
+    }
+
+    /**
+     * The most recent README generated for this repository from a known commit, whatever its tree.
+     * It is the starting point for an incremental update.
+     */
+    public Mono<GeneratedReadMe> findLatest(String owner, String repo, String instructions) {
+        String templateHash = ReadMeService.sha256(instructions);
+        return Mono.fromCallable(() -> repository.findFirstByOwnerAndRepoAndTemplateHashAndModelIdAndCommitShaIsNotNullOrderByCreatedAtDesc(
+                                owner, repo, templateHash, geminiService.getModelId())
+                        .orElse(null))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    public Mono<Void> save(String owner, String repo, String treeSha, String commitSha, String instructions, String content) {
+        return save(owner, repo, treeSha, commitSha, instructions, content, 0);
+    }
+
+    /**
+     * Stores a README that was produced by incrementalUpdates incremental updates in a row on top of
+     * the last full generation.
+     */
+    public Mono<Void> save(String owner, String repo, String treeSha, String commitSha, String instructions, String content,
+                           int incrementalUpdates) {
+        GeneratedReadMe readMe = new GeneratedReadMe();
+        readMe.setOwner(owner);
+        readMe.setRepo(repo);
+        readMe.setTreeSha(treeSha);
+        readMe.setCommitSha(commitSha);
+        readMe.setIncrementalUpdates(incrementalUpdates);
+        readMe.setTemplateHash(ReadMeService.sha256(instructions));
+        readMe.setModelId(geminiService.getModelId());
+        readMe.setContent(content);
+        readMe.setCreatedAt(Instant.now());
+
+        return Mono.fromRunnable(() -> repository.save(readMe))
+                .subscribeOn(jdbcScheduler)
+                // A concurrent request for the same tree may have stored it first
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.empty())
+                .onErrorResume(e -> {
+                    log.warn("Could not cache README for {}/{}: {}", owner, repo, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Cache key for a profile README: the repository list and the combined tree SHAs of all of them.
+     */
+    public static String profileKey(List<String> repoNames) {
+        return "profile:" + ReadMeService.sha256(String.join(",", repoNames.stream().sorted().toList()));
+    }
+
+    public static String combinedTreeSha(List<String> treeShas) {
+        return ReadMeService.sha256(String.join(",", treeShas.stream().sorted().toList()));
+    }
+
+    @Scheduled(fixedDelayString = "${readme.cache.eviction-interval-ms:3600000}")
+    public void evict() {
+        int expired = repository.deleteOlderThan(Instant.now().minus(Duration.ofDays(maxAgeDays)));
+        int trimmed = repository.deleteAllButNewest(maxRows);
+        if (expired + trimmed > 0) {
+            log.info("Evicted {} expired and {} excess cached READMEs", expired, trimmed);
+        }
+    }
+}
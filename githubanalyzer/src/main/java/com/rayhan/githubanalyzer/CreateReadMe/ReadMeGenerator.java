@@ -0,0 +1,171 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import com.rayhan.githubanalyzer.AnalyzerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns fetched repository files into a generated README. Files are normalized by ContentNormalizer
+ * before any prompt is built.
+ *
+ * Codebases that fit the prompt token budget are sent to Gemini in one call. Larger ones go through
+ * a map-reduce pass: the files are partitioned into context-sized chunks, each chunk is summarized
+ * by its own Gemini call (gemini.mapreduce.concurrency at a time), and a final call writes the
+ * README from the chunk summaries.
+ */
+@Component
+public class ReadMeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadMeGenerator.class);
+
+    public static final String MODE_AUTO = "auto";
+    public static final String MODE_SINGLE = "single";
+    public static final String MODE_MAP_REDUCE = "mapreduce";
+
+    private final ReadMeService geminiService;
+    private final ReadMePromptBuilder promptBuilder;
+    private final ContentNormalizer normalizer;
+    private final AnalyzerMetrics metrics;
+
+    @Value("${gemini.mapreduce.chunk-token-budget:100000}")
+    private int chunkTokenBudget;
+
+    @Value("${gemini.mapreduce.max-chunks:32}")
+    private int maxChunks;
+
+    @Value("${gemini.mapreduce.concurrency:4}")
+    private int concurrency;
+
+    public ReadMeGenerator(ReadMeService geminiService, ReadMePromptBuilder promptBuilder, ContentNormalizer normalizer,
+                           AnalyzerMetrics metrics) {
+        this.geminiService = geminiService;
+        this.promptBuilder = promptBuilder;
+        this.normalizer = normalizer;
+        this.metrics = metrics;
+    }
+
+    public Mono<String> generate(String instructions, Map<String, Map<String, String>> repos, String mode) {
+        return buildPrompt(instructions, repos, mode)
+                .flatMap(geminiService::analyzeRepositoryData);
+    }
+
+    /**
+     * Same as generate, but the README text is emitted as Gemini streams it. In map-reduce mode the
+     * chunk summaries are still collected first and only the final call is streamed.
+     */
+    public Flux<String> stream(String instructions, Map<String, Map<String, String>> repos, String mode) {
+        return buildPrompt(instructions, repos, mode)
+                .flatMapMany(geminiService::streamRepositoryData);
+    }
+
+    /**
+     * Brings a previously generated README up to date from the files changed since, instead of sending
+     * the whole codebase again. Only the changed files go into the prompt, always as a single call.
+     */
+    public Mono<String> update(String previousReadMe, Map<String, String> changedFiles, List<String> removedPaths) {
+        return buildPrompt(updateInstructions(previousReadMe, removedPaths), Map.of("", changedFiles), MODE_SINGLE)
+                .flatMap(geminiService::analyzeRepositoryData);
+    }
+
+    private Mono<String> buildPrompt(String instructions, Map<String, Map<String, String>> repos, String mode) {
+        // Normalizing reads and writes the blob cache, so it runs off the event loop
+        return metrics.timeStage("normalize", Mono.fromSupplier(() -> normalizer.normalize(repos))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(normalized -> {
+                    if (useMapReduce(instructions, normalized, mode)) {
+                        return metrics.timeStage("summarize", summarizeChunks(instructions, normalized));
+                    }
+                    return metrics.timeStage("prompt", Mono.fromSupplier(() -> promptBuilder.buildMultiRepoPrompt(instructions, normalized)));
+                })
+                .doOnNext(prompt -> metrics.prompt(prompt.length(), promptBuilder.estimateTokens(prompt)));
+    }
+
+    public boolean useMapReduce(String instructions, Map<String, Map<String, String>> repos, String mode) {
+        if (MODE_MAP_REDUCE.equalsIgnoreCase(mode)) {
+            return true;
+        }
+        if (MODE_SINGLE.equalsIgnoreCase(mode)) {
+            return false;
+        }
+        return promptBuilder.estimateTokens(instructions) + promptBuilder.estimateTokens(repos) > promptBuilder.getTokenBudget();
+    }
+
+    /**
+     * Runs the map step and returns the reduce prompt built from the chunk summaries.
+     */
+    private Mono<String> summarizeChunks(String instructions, Map<String, Map<String, String>> repos) {
+        List<Map<String, Map<String, String>>> chunks = promptBuilder.partition(repos, chunkTokenBudget, maxChunks);
+        int total = chunks.size();
+        log.info("Summarizing codebase in {} chunks before generating the README", total);
+
+        return Flux.range(0, total)
+                .flatMapSequential(index -> geminiService.analyzeRepositoryData(
+                                        promptBuilder.buildMultiRepoPrompt(chunkInstructions(index + 1, total), chunks.get(index)))
+                                .map(summary -> "--- Summary of part " + (index + 1) + " of " + total + " ---\n" + summary + "\n\n")
+                                // One failed chunk should not sink the whole README
+                                .onErrorResume(e -> {
+                                    log.warn("Error summarizing chunk {} of {}: {}", index + 1, total, e.getMessage());
+                                    return Mono.empty();
+                                }),
+                        concurrency)
+                .collectList()
+                .flatMap(summaries -> {
+                    if (summaries.isEmpty()) {
+                        return Mono.error(new RuntimeException("Could not summarize any part of the codebase"));
+                    }
+                    return Mono.just(reducePrompt(instructions, summaries));
+                });
+    }
+
+    private String updateInstructions(String previousReadMe, List<String> removedPaths) {
+        StringBuilder instructions = new StringBuilder(previousReadMe.length() + 2000);
+        instructions.append("You wrote the README.md below for this repository. The code has changed since: ")
+                .append("the files at the end of this message were added or modified and are given with their new contents")
+                .append(removedPaths.isEmpty() ? ". " : ", and the files listed under Removed Files were deleted. ")
+                .append("Update the README so it describes the code as it is now. Keep its structure, sections, tone and formatting, ")
+                .append("only change what these changes affect, and leave everything else as it is. ")
+                .append("Return the complete updated README in Markdown, without any commentary.\n\n")
+                .append("---\n\n")
+                .append("📄 Current README:\n\n")
+                .append(previousReadMe)
+                .append("\n\n---\n\n");
+        if (!removedPaths.isEmpty()) {
+            instructions.append("🗑️ Removed Files:\n\n");
+            removedPaths.forEach(path -> instructions.append("- ").append(path).append('\n'));
+            instructions.append("\n---\n\n");
+        }
+        instructions.append("📦 Changed Files (Path → Content):\n\n");
+        return instructions.toString();
+    }
+
+    private String chunkInstructions(int part, int total) {
+        return "You are reading part " + part + " of " + total + " of a codebase that is too large to review at once. " +
+                "Summarize this part for another engineer who will write the project's README from all the summaries. " +
+                "Cover the purpose of these files, the main components and how they interact, the languages, frameworks and libraries used, " +
+                "notable features, and any design patterns or problems you notice. Mention file paths where useful. " +
+                "Be factual and concise, at most 400 words, in Markdown bullet points.\n\n" +
+                "---\n\n" +
+                "📦 Codebase Part " + part + " of " + total + " (Path → Content):\n\n";
+    }
+
+    private String reducePrompt(String instructions, List<String> summaries) {
+        int capacity = instructions.length() + 200;
+        for (String summary : summaries) {
+            capacity += summary.length();
+        }
+
+        StringBuilder prompt = new StringBuilder(capacity);
+        prompt.append(instructions);
+        prompt.append("(The codebase was too large to include in full, so it is given below as summaries of its parts.)\n\n");
+        summaries.forEach(prompt::append);
+        return prompt.toString();
+    }
+}
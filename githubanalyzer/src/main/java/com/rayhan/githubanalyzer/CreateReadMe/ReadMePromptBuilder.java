@@ -0,0 +1,274 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Assembles the codebase snapshot sent to Gemini within a token budget.
+ *
+ * Files are ranked by how much they tell about the project (entry points, build files and
+ * controllers first, tests and generated or vendored code last) and added in that order until the
+ * budget runs out. The file that crosses the budget is truncated, anything after it is only listed
+ * by path. The final prompt is written into a single buffer sized up front.
+ */
+@Component
+public class ReadMePromptBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadMePromptBuilder.class);
+
+    // Rough average for source code, good enough to stay clear of the context window
+    public static final int CHARS_PER_TOKEN = 4;
+
+    // Truncating a file below this many characters is not worth it, it gets elided instead
+    private static final int MIN_TRUNCATED_CHARS = 2000;
+    private static final int MAX_LISTED_OMISSIONS = 200;
+
+    private static final String TRUNCATED_MARKER = "\n... [truncated] ...\n";
+
+    private static final Pattern ENTRY_POINT = Pattern.compile(
+            "(^|/)(main|app|application|index|server|manage|__main__|[A-Za-z]*Application)\\.[a-z]+$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BUILD_FILE = Pattern.compile(
+            "(^|/)(pom\\.xml|build\\.gradle(\\.kts)?|package\\.json|requirements\\.txt|setup\\.py|pyproject\\.toml|CMakeLists\\.txt|Makefile|Dockerfile|composer\\.json)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CONTROLLER = Pattern.compile(
+            "(controller|route|router|handler|endpoint|resource|api|service|views?)[^/]*\\.[a-z]+$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern MODEL = Pattern.compile(
+            "(model|entity|schema|config|repository|dto)[^/]*\\.[a-z]+$", Pattern.CASE_INSENSITIVE);
+    // The Java suffix is case-sensitive and needs a CamelCase boundary, or Contest.java and RateLimit.java would count
+    private static final Pattern TEST = Pattern.compile(
+            "(^|/)(tests?|__tests__|spec)/|(?-i:[a-z0-9](Test|Tests|IT)\\.java$)|(^|/)test_[^/]*\\.py$|_test\\.py$|\\.(test|spec)\\.js$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern GENERATED = Pattern.compile(
+            "(^|/)(node_modules|vendor|third_party|dist|build|target|out|generated|\\.next)/|\\.min\\.js$|\\.bundle\\.js$|[-.]generated\\.", Pattern.CASE_INSENSITIVE);
+
+    private final int tokenBudget;
+
+    public ReadMePromptBuilder(@Value("${gemini.prompt.token-budget:200000}") int tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
+    public int getTokenBudget() {
+        return tokenBudget;
+    }
+
+    public int estimateTokens(CharSequence text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    public String buildRepoPrompt(String instructions, Map<String, String> files) {
+        return buildMultiRepoPrompt(instructions, Map.of("", files));
+    }
+
+    /**
+     * Builds the prompt for several repositories. Files are ranked across all repositories together,
+     * but written out grouped by repository. An empty repository name writes the files without a
+     * repository header.
+     */
+    public String buildMultiRepoPrompt(String instructions, Map<String, Map<String, String>> repos) {
+        List<PromptFile> ranked = rank(repos);
+        Map<String, List<PromptFile>> selectedByRepo = new LinkedHashMap<>();
+        repos.keySet().forEach(repo -> selectedByRepo.put(repo, new ArrayList<>()));
+        List<String> omitted = new ArrayList<>();
+
+        long remaining = (long) tokenBudget * CHARS_PER_TOKEN - instructions.length();
+        for (PromptFile file : ranked) {
+            long headerLength = fileHeader(file.path()).length() + 2;
+            if (remaining - headerLength >= file.content().length()) {
+                selectedByRepo.get(file.repo()).add(file);
+                remaining -= headerLength + file.content().length();
+            } else if (remaining - headerLength - TRUNCATED_MARKER.length() >= MIN_TRUNCATED_CHARS) {
+                int keep = (int) (remaining - headerLength - TRUNCATED_MARKER.length());
+                selectedByRepo.get(file.repo()).add(new PromptFile(file.repo(), file.path(),
+                        file.content().substring(0, keep) + TRUNCATED_MARKER, file.score()));
+                remaining = 0;
+            } else {
+                omitted.add(file.repo().isEmpty() ? file.path() : file.repo() + "/" + file.path());
+            }
+        }
+
+        String omissions = omissionNote(omitted);
+        int capacity = instructions.length() + omissions.length();
+        for (Map.Entry<String, List<PromptFile>> repo : selectedByRepo.entrySet()) {
+            capacity += repoHeader(repo.getKey()).length() + 1;
+            for (PromptFile file : repo.getValue()) {
+                capacity += fileHeader(file.path()).length() + file.content().length() + 2;
+            }
+        }
+
+        StringBuilder prompt = new StringBuilder(capacity);
+        prompt.append(instructions);
+        selectedByRepo.forEach((repo, files) -> {
+            if (files.isEmpty()) {
+                return;
+            }
+            prompt.append(repoHeader(repo));
+            for (PromptFile file : files) {
+                prompt.append(fileHeader(file.path()));
+                prompt.append(file.content()).append("\n\n");
+            }
+            if (!repo.isEmpty()) {
+                prompt.append("\n");
+            }
+        });
+        prompt.append(omissions);
+
+        if (!omitted.isEmpty()) {
+            log.info("Prompt budget of {} tokens reached, omitted {} files", tokenBudget, omitted.size());
+        }
+        return prompt.toString();
+    }
+
+    /**
+     * Orders the files of all repositories from most to least useful for describing the project.
+     */
+    public List<PromptFile> rank(Map<String, Map<String, String>> repos) {
+        List<PromptFile> files = new ArrayList<>();
+        repos.forEach((repo, contents) -> contents.forEach((path, content) ->
+                files.add(new PromptFile(repo, path, content, score(path)))));
+
+        files.sort(Comparator.comparingInt(PromptFile::score).reversed()
+                .thenComparingInt(file -> file.content().length())
+                .thenComparing(PromptFile::path));
+        return files;
+    }
+
+    /**
+     * Splits the files into at most maxChunks chunks that each fit in chunkTokens once formatted.
+     * Files are kept in repository and path order so related files land in the same chunk; a single
+     * file larger than a chunk is truncated to fit. When not everything fits, the lowest ranked files
+     * are left out: the result packs the longest prefix of the ranking that still fits in maxChunks.
+     */
+    public List<Map<String, Map<String, String>>> partition(Map<String, Map<String, String>> repos, int chunkTokens, int maxChunks) {
+        long chunkChars = (long) chunkTokens * CHARS_PER_TOKEN;
+        List<PromptFile> ranked = rank(repos);
+
+        // Perfect packing bounds how many files can fit; packing in path order may need fewer
+        long totalChars = chunkChars * maxChunks;
+        int upper = 0;
+        for (PromptFile file : ranked) {
+            long cost = Math.min(formattedLength(file), chunkChars);
+            if (cost > totalChars) {
+                break;
+            }
+            upper++;
+            totalChars -= cost;
+        }
+
+        List<Map<String, Map<String, String>>> chunks = pack(ranked.subList(0, upper), chunkChars);
+        if (chunks.size() <= maxChunks) {
+            return chunks;
+        }
+
+        // Keeping more files never takes fewer chunks in practice, so search for the largest prefix that fits
+        int lower = 0;
+        while (lower < upper - 1) {
+            int middle = (lower + upper) >>> 1;
+            if (pack(ranked.subList(0, middle), chunkChars).size() <= maxChunks) {
+                lower = middle;
+            } else {
+                upper = middle;
+            }
+        }
+        log.info("Codebase needs more than {} chunks, leaving out the {} lowest ranked files", maxChunks, ranked.size() - lower);
+        return pack(ranked.subList(0, lower), chunkChars);
+    }
+
+    private List<Map<String, Map<String, String>>> pack(List<PromptFile> files, long chunkChars) {
+        List<PromptFile> ordered = new ArrayList<>(files);
+        ordered.sort(Comparator.comparing(PromptFile::repo).thenComparing(PromptFile::path));
+
+        List<Map<String, Map<String, String>>> chunks = new ArrayList<>();
+        Map<String, Map<String, String>> current = new LinkedHashMap<>();
+        long currentChars = 0;
+        for (PromptFile file : ordered) {
+            String content = file.content();
+            long length = formattedLength(file);
+            if (length > chunkChars) {
+                int overhead = (int) (length - content.length()) + TRUNCATED_MARKER.length();
+                content = content.substring(0, (int) Math.max(0, chunkChars - overhead)) + TRUNCATED_MARKER;
+                length = chunkChars;
+            }
+            if (currentChars + length > chunkChars && !current.isEmpty()) {
+                chunks.add(current);
+                current = new LinkedHashMap<>();
+                currentChars = 0;
+            }
+            current.computeIfAbsent(file.repo(), repo -> new LinkedHashMap<>()).put(file.path(), content);
+            currentChars += length;
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    /**
+     * Estimated tokens of the files as they would be written into a prompt, before any trimming.
+     */
+    public long estimateTokens(Map<String, Map<String, String>> repos) {
+        long chars = 0;
+        for (Map.Entry<String, Map<String, String>> repo : repos.entrySet()) {
+            chars += repoHeader(repo.getKey()).length() + 1;
+            for (Map.Entry<String, String> file : repo.getValue().entrySet()) {
+                chars += fileHeader(file.getKey()).length() + file.getValue().length() + 2;
+            }
+        }
+        return (chars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    public static int score(String path) {
+        int score;
+        if (GENERATED.matcher(path).find()) {
+            score = 5;
+        } else if (TEST.matcher(path).find()) {
+            score = 20;
+        } else if (BUILD_FILE.matcher(path).find()) {
+            score = 100;
+        } else if (ENTRY_POINT.matcher(path).find()) {
+            score = 95;
+        } else if (CONTROLLER.matcher(path).find()) {
+            score = 80;
+        } else if (MODEL.matcher(path).find()) {
+            score = 60;
+        } else {
+            score = 50;
+        }
+
+        if (path.endsWith(".ipynb")) {
+            score -= 20;
+        }
+        // Prefer files closer to the root when everything else is equal
+        int depth = (int) path.chars().filter(c -> c == '/').count();
+        return score - Math.min(depth, 10);
+    }
+
+    private long formattedLength(PromptFile file) {
+        return repoHeader(file.repo()).length() + fileHeader(file.path()).length() + file.content().length() + 3;
+    }
+
+    private String repoHeader(String repo) {
+        return repo.isEmpty() ? "" : "=== REPOSITORY: " + repo + " ===\n\n";
+    }
+
+    private String fileHeader(String path) {
+        return "--- File: " + path + " ---\n";
+    }
+
+    private String omissionNote(List<String> omitted) {
+        if (omitted.isEmpty()) {
+            return "";
+        }
+        StringBuilder note = new StringBuilder("--- Omitted ").append(omitted.size()).append(" lower priority files to fit the context: ");
+        note.append(String.join(", ", omitted.subList(0, Math.min(omitted.size(), MAX_LISTED_OMISSIONS))));
+        if (omitted.size() > MAX_LISTED_OMISSIONS) {
+            note.append(", ...");
+        }
+        return note.append(" ---\n").toString();
+    }
+
+    public record PromptFile(String repo, String path, String content, int score) {
+    }
+}
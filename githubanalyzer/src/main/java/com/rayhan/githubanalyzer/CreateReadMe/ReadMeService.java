@@ -4,60 +4,69 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rayhan.githubanalyzer.AnalyzerMetrics;
+import com.rayhan.githubanalyzer.HttpClientFactory;
+import com.rayhan.githubanalyzer.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 @Service
 public class ReadMeService {
 
+    private static final Logger log = LoggerFactory.getLogger(ReadMeService.class);
+
 
     private final WebClient webClient;
     private final String gemniApiKey;
     private final String gemniModelId;
     private final ObjectMapper objectMapper = new ObjectMapper();
-
-    private static final String BASE_URL = "https://generativelanguage.googleapis.com/v1beta/models/";
+    private final SingleFlight<String, String> analysisFlights = new SingleFlight<>();
+    private final AnalyzerMetrics metrics;
 
     public ReadMeService( @Value("${gemini.api.key}") String gemniApiKey,
         @Value("${gemini.api.model-id}") String gemniModelId,
-        WebClient.Builder webClientBuilder) {
+        @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta/models/}") String baseUrl,
+        WebClient.Builder webClientBuilder,
+        HttpClientFactory httpClients,
+        AnalyzerMetrics metrics) {
 
         this.gemniApiKey = gemniApiKey;
         this.gemniModelId = gemniModelId;
-        this.webClient = webClientBuilder.baseUrl(BASE_URL).build();
+        this.metrics = metrics;
+        // Own "gemini" pool so long generations never hold connections GitHub fetches need
+        this.webClient = httpClients.configure("gemini", baseUrl, webClientBuilder).baseUrl(baseUrl).build();
 
     }
 
-    public Mono<String> analyzeRepositoryData(String textPrompt) {
-        ObjectNode rootNode = objectMapper.createObjectNode();
-        ArrayNode contentsArray = objectMapper.createArrayNode();
-        ObjectNode contentNode = objectMapper.createObjectNode();
-        ArrayNode partsArray = objectMapper.createArrayNode();
-        ObjectNode partNode = objectMapper.createObjectNode();
-
-        partNode.put("text", textPrompt);
-        partsArray.add(partNode);
-        contentNode.set("parts", partsArray);
-        contentsArray.add(contentNode);
-        rootNode.set("contents", contentsArray);
+    public String getModelId() {
+        return gemniModelId;
+    }
 
-        // Add generation configuration (optional but recommended for control)
-        ObjectNode generationConfigNode = objectMapper.createObjectNode();
-        generationConfigNode.put("temperature", 0.7); // Adjust creativity (0.0 - 1.0)
-        generationConfigNode.put("maxOutputTokens", 2048); // Max tokens in the response
-        generationConfigNode.put("topP", 0.95); // Nucleus sampling
-        generationConfigNode.put("topK", 40);   // Top-k sampling
-        rootNode.set("generationConfig", generationConfigNode);
+    /**
+     * Concurrent calls with an identical prompt share one Gemini request.
+     */
+    public Mono<String> analyzeRepositoryData(String textPrompt) {
+        return analysisFlights.execute(sha256(textPrompt), () -> generateContent(textPrompt));
+    }
 
+    private Mono<String> generateContent(String textPrompt) {
         String requestBodyJson;
         try {
-            requestBodyJson = objectMapper.writeValueAsString(rootNode);
-            // System.out.println("Gemini Request Body: " + requestBodyJson); // For debugging
+            requestBodyJson = buildRequestBody(textPrompt);
         } catch (IOException e) {
             return Mono.error(new RuntimeException("Error creating Gemini request body", e));
         }
@@ -74,8 +83,9 @@ public class ReadMeService {
                 .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), clientResponse ->
                         clientResponse.bodyToMono(String.class) // Get the error response body
                                 .flatMap(errorBody -> {
-                                    System.err.println("Gemini API error: " + clientResponse.statusCode() + " - " + errorBody);
-                                    return Mono.error(new RuntimeException("Gemini API error: " + clientResponse.statusCode() + " " + errorBody));
+                                    log.error("Gemini API error: {} - {}", clientResponse.statusCode(), errorBody);
+                                    return Mono.error(new GeminiApiException(clientResponse.statusCode().value(),
+                                            "Gemini API error: " + clientResponse.statusCode() + " " + errorBody));
                                 })
                 )
                 .bodyToMono(JsonNode.class) // Expect a JSON response
@@ -94,12 +104,128 @@ public class ReadMeService {
                             }
                         }
                     }
-                    System.err.println("Unexpected Gemini response format: " + jsonResponse.toPrettyString());
+                    log.error("Unexpected Gemini response format: {}", jsonResponse.toPrettyString());
                     return Mono.error(new RuntimeException("Unexpected response format from Gemini API"));
                 })
-                .doOnError(e -> System.err.println("Error calling Gemini API: " + e.getMessage()));
+                .doOnError(e -> log.error("Error calling Gemini API: {}", e.getMessage()))
+                .doOnError(e -> metrics.geminiError(errorReason(e)))
+                .transform(request -> metrics.timeGemini("generate", request));
+    }
+
+    String buildRequestBody(String textPrompt) throws IOException {
+        ObjectNode rootNode = objectMapper.createObjectNode();
+        ArrayNode contentsArray = objectMapper.createArrayNode();
+        ObjectNode contentNode = objectMapper.createObjectNode();
+        ArrayNode partsArray = objectMapper.createArrayNode();
+        ObjectNode partNode = objectMapper.createObjectNode();
+
+        partNode.put("text", textPrompt);
+        partsArray.add(partNode);
+        contentNode.set("parts", partsArray);
+        contentsArray.add(contentNode);
+        rootNode.set("contents", contentsArray);
+
+        // Add generation configuration (optional but recommended for control)
+        ObjectNode generationConfigNode = objectMapper.createObjectNode();
+        generationConfigNode.put("temperature", 0.7); // Adjust creativity (0.0 - 1.0)
+        generationConfigNode.put("maxOutputTokens", 2048); // Max tokens in the response
+        generationConfigNode.put("topP", 0.95); // Nucleus sampling
+        generationConfigNode.put("topK", 40);   // Top-k sampling
+        rootNode.set("generationConfig", generationConfigNode);
+
+        return objectMapper.writeValueAsString(rootNode);
+    }
+
+    /**
+     * Streams the generated text as Gemini produces it. Uses streamGenerateContent with alt=sse, where
+     * every event carries a partial GenerateContentResponse; each one is parsed as it arrives and its
+     * text parts are emitted right away.
+     */
+    public Flux<String> streamRepositoryData(String textPrompt) {
+        String requestBodyJson;
+        try {
+            requestBodyJson = buildRequestBody(textPrompt);
+        } catch (IOException e) {
+            return Flux.error(new RuntimeException("Error creating Gemini request body", e));
+        }
+
+        return webClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path(gemniModelId + ":streamGenerateContent")
+                        .queryParam("alt", "sse")
+                        .queryParam("key", gemniApiKey)
+                        .build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(requestBodyJson)
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), clientResponse ->
+                        clientResponse.bodyToMono(String.class)
+                                .flatMap(errorBody -> {
+                                    log.error("Gemini API error: {} - {}", clientResponse.statusCode(), errorBody);
+                                    return Mono.error(new GeminiApiException(clientResponse.statusCode().value(),
+                                            "Gemini API error: " + clientResponse.statusCode() + " " + errorBody));
+                                })
+                )
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .filter(event -> event.data() != null && !event.data().isBlank())
+                .concatMap(event -> {
+                    try {
+                        String text = extractText(objectMapper.readTree(event.data()));
+                        return text.isEmpty() ? Mono.<String>empty() : Mono.just(text);
+                    } catch (IOException e) {
+                        return Mono.error(new RuntimeException("Unexpected streaming response format from Gemini API", e));
+                    }
+                })
+                .doOnError(e -> log.error("Error streaming from Gemini API: {}", e.getMessage()))
+                .doOnError(e -> metrics.geminiError(errorReason(e)))
+                .transform(chunks -> metrics.timeGemini("stream", chunks));
+    }
+
+    /**
+     * Tag for gemini.errors: the HTTP status Gemini answered with, or the kind of failure otherwise.
+     */
+    private static String errorReason(Throwable e) {
+        if (e instanceof GeminiApiException apiError) {
+            return String.valueOf(apiError.getStatus());
+        }
+        return e.getClass().getSimpleName();
+    }
+
+    private String extractText(JsonNode chunk) {
+        StringBuilder text = new StringBuilder();
+        JsonNode partsNode = chunk.path("candidates").path(0).path("content").path("parts");
+        for (JsonNode part : partsNode) {
+            if (part.path("text").isTextual()) {
+                text.append(part.path("text").asText());
+            }
+        }
+        return text.toString();
+    }
+
+    static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
+    /**
+     * An error status returned by the Gemini API.
+     */
+    public static class GeminiApiException extends RuntimeException {
+
+        private final int status;
 
+        public GeminiApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
 
+        public int getStatus() {
+            return status;
+        }
+    }
 }
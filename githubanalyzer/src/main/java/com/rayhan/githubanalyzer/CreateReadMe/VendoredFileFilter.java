@@ -0,0 +1,45 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Leaves out third-party code checked into the repository and files marked as generated: they say
+ * nothing about the project itself.
+ */
+@Component
+@Order(10)
+public class VendoredFileFilter implements NormalizationStage {
+
+    private static final Pattern VENDORED_PATH = Pattern.compile(
+            "(^|/)(node_modules|bower_components|vendor|vendors|third[_-]?party|site-packages|external|extern|deps)/", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern GENERATED_MARKER = Pattern.compile(
+            "@generated|DO NOT EDIT|auto-?generated|generated by", Pattern.CASE_INSENSITIVE);
+
+    // Generated markers only count near the top of a file
+    private static final int MARKER_SCAN_CHARS = 500;
+
+    @Override
+    public String getName() {
+        return "vendored";
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return false;
+    }
+
+    @Override
+    public String apply(String path, String content) {
+        if (VENDORED_PATH.matcher(path).find()) {
+            return null;
+        }
+        if (GENERATED_MARKER.matcher(content.substring(0, Math.min(content.length(), MARKER_SCAN_CHARS))).find()) {
+            return null;
+        }
+        return content;
+    }
+}
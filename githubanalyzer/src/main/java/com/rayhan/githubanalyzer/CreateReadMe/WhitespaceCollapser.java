@@ -0,0 +1,38 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops trailing whitespace and collapses runs of blank lines into one. Indentation is left alone,
+ * it is significant in Python.
+ */
+@Component
+@Order(40)
+public class WhitespaceCollapser implements NormalizationStage {
+
+    @Override
+    public String getName() {
+        return "whitespace";
+    }
+
+    @Override
+    public String apply(String path, String content) {
+        StringBuilder out = new StringBuilder(content.length());
+        boolean previousBlank = true;
+        for (String line : content.split("\n", -1)) {
+            String trimmed = line.stripTrailing();
+            boolean blank = trimmed.isEmpty();
+            if (blank && previousBlank) {
+                continue;
+            }
+            out.append(trimmed).append('\n');
+            previousBlank = blank;
+        }
+        // Leave no blank line at the end
+        while (out.length() > 1 && out.charAt(out.length() - 1) == '\n' && out.charAt(out.length() - 2) == '\n') {
+            out.setLength(out.length() - 1);
+        }
+        return out.toString();
+    }
+}
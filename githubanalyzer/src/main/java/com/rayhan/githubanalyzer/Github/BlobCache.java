@@ -0,0 +1,402 @@
+package com.rayhan.githubanalyzer.Github;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of file contents keyed by git blob SHA.
+ *
+ * Blobs are appended to segment files of at most github.cache.segment-bytes, while the index of
+ * sha -> (segment, offset, length) lives on the heap. Reads and writes are positional FileChannel
+ * calls, so no buffer outlives the call and a segment can be closed and deleted as soon as it no
+ * longer holds any live blob. Only the index lookups and the reservation of a record's position
+ * happen under the cache lock, the disk IO itself runs outside it, so a slow read or write never
+ * holds up other callers. A read racing with the deletion of its segment counts as a miss. Callers
+ * on an event loop should still move get and put onto a blocking-friendly scheduler. Once the live
+ * bytes go over the configured limit the least recently used blobs are evicted. The index is rebuilt
+ * from the segment files on startup.
+ */
+@Component
+public class BlobCache {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobCache.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".blob";
+
+    private final Path directory;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final int segmentBytes;
+    private final int maxSegments;
+
+    // Access-ordered, so iteration starts at the least recently used blob
+    private final LinkedHashMap<String, BlobLocation> index = new LinkedHashMap<>(1024, 0.75f, true);
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private Segment activeSegment;
+    private long liveBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BlobCache(@Value("${github.cache.directory:${java.io.tmpdir}/githubanalyzer-blobs}") String directory,
+                     @Value("${github.cache.enabled:true}") boolean enabled,
+                     @Value("${github.cache.max-bytes:536870912}") long maxBytes,
+                     @Value("${github.cache.segment-bytes:67108864}") int segmentBytes,
+                     MeterRegistry meterRegistry) {
+        this.directory = Path.of(directory);
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.segmentBytes = segmentBytes;
+        // Dead records keep their space until the whole segment is dropped, so allow one spare segment
+        this.maxSegments = (int) Math.max(2, maxBytes / segmentBytes + 1);
+
+        if (enabled) {
+            loadSegments();
+        }
+
+        FunctionCounter.builder("cache.requests", hits, AtomicLong::get)
+                .tags("cache", "blob", "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.requests", misses, AtomicLong::get)
+                .tags("cache", "blob", "result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tags("cache", "blob")
+                .register(meterRegistry);
+        Gauge.builder("github.cache.live.bytes", this, cache -> cache.liveBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean contains(String sha) {
+        if (!enabled || sha == null) {
+            return false;
+        }
+        synchronized (this) {
+            return index.containsKey(sha);
+        }
+    }
+
+    public Optional<String> get(String sha) {
+        if (!enabled || sha == null) {
+            return Optional.empty();
+        }
+
+        BlobLocation location;
+        Segment segment;
+        synchronized (this) {
+            location = index.get(sha);
+            segment = location == null ? null : segments.get(location.segmentId());
+        }
+        if (segment == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        ByteBuffer content = ByteBuffer.allocate(location.length());
+        try {
+            readFully(segment, content, location.offset());
+        } catch (IOException e) {
+            // Also reached when the segment was dropped while reading it
+            log.warn("Could not read blob {} from cache: {}", sha, e.getMessage());
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(new String(content.array(), StandardCharsets.UTF_8));
+    }
+
+    public void put(String sha, String content) {
+        if (!enabled || sha == null || contains(sha)) {
+            return;
+        }
+
+        byte[] shaBytes = sha.getBytes(StandardCharsets.US_ASCII);
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        int recordLength = Short.BYTES + shaBytes.length + Integer.BYTES + contentBytes.length;
+        if (recordLength > segmentBytes) {
+            return;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(recordLength)
+                .putShort((short) shaBytes.length)
+                .put(shaBytes)
+                .putInt(contentBytes.length)
+                .put(contentBytes)
+                .flip();
+
+        // Reserve the record's place in the active segment, the write itself happens outside the lock
+        Segment segment;
+        int position;
+        synchronized (this) {
+            if (index.containsKey(sha)) {
+                return;
+            }
+            try {
+                if (activeSegment == null || activeSegment.writePosition + recordLength > segmentBytes) {
+                    activeSegment = openSegment(segments.isEmpty() ? 0 : segments.lastKey() + 1);
+                    segments.put(activeSegment.id, activeSegment);
+                }
+            } catch (IOException e) {
+                log.warn("Could not open blob cache segment: {}", e.getMessage());
+                return;
+            }
+            segment = activeSegment;
+            position = segment.writePosition;
+            segment.writePosition = position + recordLength;
+        }
+
+        try {
+            while (record.hasRemaining()) {
+                segment.channel.write(record, position + record.position());
+            }
+        } catch (IOException e) {
+            log.warn("Could not write blob cache segment: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            // The segment may have been dropped, or the blob stored by another caller, in the meantime
+            if (segments.get(segment.id) != segment || index.containsKey(sha)) {
+                return;
+            }
+            addToIndex(sha, new BlobLocation(segment.id, position + Short.BYTES + shaBytes.length + Integer.BYTES,
+                    contentBytes.length));
+            evictIfNeeded();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        synchronized (this) {
+            stats.put("entries", index.size());
+            stats.put("liveBytes", liveBytes);
+            stats.put("segments", segments.size());
+        }
+        return stats;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Computes the SHA git assigns to a blob with this content, which is what the Trees API reports
+     * for each file. Used to cache files that were read from an archive rather than by SHA.
+     */
+    public static String gitBlobSha(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            closeChannel(segment);
+        }
+        segments.clear();
+        index.clear();
+        activeSegment = null;
+    }
+
+    private void addToIndex(String sha, BlobLocation location) {
+        index.put(sha, location);
+        segments.get(location.segmentId()).liveBytes += location.length();
+        liveBytes += location.length();
+    }
+
+    private void evictIfNeeded() {
+        // Too many segments means dead space is piling up; drop the oldest segment wholesale
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.firstEntry().getValue();
+            Iterator<BlobLocation> locations = index.values().iterator();
+            while (locations.hasNext()) {
+                BlobLocation location = locations.next();
+                if (location.segmentId() == oldest.id) {
+                    locations.remove();
+                    liveBytes -= location.length();
+                    evictions.incrementAndGet();
+                }
+            }
+            oldest.liveBytes = 0;
+            dropSegment(oldest);
+        }
+
+        Iterator<BlobLocation> leastRecentlyUsed = index.values().iterator();
+        while (liveBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            BlobLocation location = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            liveBytes -= location.length();
+            evictions.incrementAndGet();
+
+            Segment segment = segments.get(location.segmentId());
+            segment.liveBytes -= location.length();
+            if (segment.liveBytes == 0 && segment != activeSegment) {
+                dropSegment(segment);
+            }
+        }
+    }
+
+    private void dropSegment(Segment segment) {
+        segments.remove(segment.id);
+        if (segment == activeSegment) {
+            activeSegment = null;
+        }
+        closeChannel(segment);
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            log.warn("Could not delete blob cache segment {}: {}", segment.file, e.getMessage());
+        }
+    }
+
+    private Segment openSegment(int id) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(id, file, channel);
+    }
+
+    private void loadSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> ids.add(Integer.parseInt(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Could not read blob cache directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        Collections.sort(ids);
+
+        try {
+            for (int id : ids) {
+                Segment segment = openSegment(id);
+                segments.put(id, segment);
+                activeSegment = segment;
+                readRecords(segment);
+            }
+        } catch (IOException e) {
+            segments.values().forEach(this::closeChannel);
+            segments.clear();
+            index.clear();
+            activeSegment = null;
+            liveBytes = 0;
+            throw new UncheckedIOException("Could not load blob cache segments from " + directory, e);
+        }
+        evictIfNeeded();
+    }
+
+    private void readRecords(Segment segment) throws IOException {
+        long size = Math.min(segment.channel.size(), segmentBytes);
+        ByteBuffer shaLengthBuffer = ByteBuffer.allocate(Short.BYTES);
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+        int position = 0;
+        // A record cut short by a crash, or zeros left by an older preallocated segment, end the list
+        while (position + Short.BYTES <= size) {
+            readFully(segment, shaLengthBuffer.clear(), position);
+            short shaLength = shaLengthBuffer.getShort(0);
+            if (shaLength <= 0 || position + Short.BYTES + shaLength + Integer.BYTES > size) {
+                break;
+            }
+            ByteBuffer shaBytes = ByteBuffer.allocate(shaLength);
+            readFully(segment, shaBytes, position + Short.BYTES);
+            readFully(segment, lengthBuffer.clear(), position + Short.BYTES + shaLength);
+            int length = lengthBuffer.getInt(0);
+            int contentOffset = position + Short.BYTES + shaLength + Integer.BYTES;
+            if (length < 0 || (long) contentOffset + length > size) {
+                break;
+            }
+
+            String sha = new String(shaBytes.array(), StandardCharsets.US_ASCII);
+            BlobLocation previous = index.remove(sha);
+            if (previous != null) {
+                segments.get(previous.segmentId()).liveBytes -= previous.length();
+                liveBytes -= previous.length();
+            }
+            addToIndex(sha, new BlobLocation(segment.id, contentOffset, length));
+            position = contentOffset + length;
+        }
+        // Appends continue right after the last complete record
+        segment.channel.truncate(position);
+        segment.writePosition = position;
+    }
+
+    private static void readFully(Segment segment, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            if (segment.channel.read(target, position + target.position()) < 0) {
+                throw new IOException("Unexpected end of blob cache segment " + segment.file);
+            }
+        }
+    }
+
+    private void closeChannel(Segment segment) {
+        try {
+            segment.channel.force(false);
+            segment.channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close blob cache segment {}: {}", segment.file, e.getMessage());
+        }
+    }
+
+    private record BlobLocation(int segmentId, int offset, int length) {
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final Path file;
+        private final FileChannel channel;
+        private int writePosition;
+        private long liveBytes;
+
+        private Segment(int id, Path file, FileChannel channel) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+        }
+    }
+}
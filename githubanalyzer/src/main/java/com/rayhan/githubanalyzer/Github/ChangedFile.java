@@ -0,0 +1,49 @@
+package com.rayhan.githubanalyzer.Github;
+
+/**
+ * A file in a commit comparison. Status is one of added, removed, modified, renamed, copied, changed
+ * or unchanged; previous_filename is only set for renames.
+ */
+public class ChangedFile {
+
+    private String filename;
+    private String status;
+    private String sha;
+    private String previous_filename;
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getSha() {
+        return sha;
+    }
+
+    public void setSha(String sha) {
+        this.sha = sha;
+    }
+
+    public String getPrevious_filename() {
+        return previous_filename;
+    }
+
+    public void setPrevious_filename(String previous_filename) {
+        this.previous_filename = previous_filename;
+    }
+
+    public boolean isRemoved() {
+        return "removed".equals(status);
+    }
+}
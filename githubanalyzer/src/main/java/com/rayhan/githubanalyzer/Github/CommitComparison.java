@@ -0,0 +1,65 @@
+package com.rayhan.githubanalyzer.Github;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of GET /repos/{owner}/{repo}/compare/{base}...{head}. GitHub lists at most 300 files, a
+ * comparison with that many may be missing some.
+ */
+public class CommitComparison {
+
+    public static final int MAX_LISTED_FILES = 300;
+
+    private String status;
+    private int ahead_by;
+    private List<ChangedFile> files = new ArrayList<>();
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAhead_by() {
+        return ahead_by;
+    }
+
+    public void setAhead_by(int ahead_by) {
+        this.ahead_by = ahead_by;
+    }
+
+    public List<ChangedFile> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<ChangedFile> files) {
+        this.files = files != null ? files : new ArrayList<>();
+    }
+
+    /**
+     * Whether head only adds commits on top of base. After a force push the comparison says diverged
+     * or behind, and the files no longer describe what changed since base.
+     */
+    public boolean isFastForward() {
+        return "ahead".equals(status) || "identical".equals(status);
+    }
+
+    public boolean isComplete() {
+        return files.size() < MAX_LISTED_FILES;
+    }
+
+    /**
+     * Changed files the analysis would have read, by the same rule as a full crawl.
+     * Renames count when either name is analyzable.
+     */
+    public List<ChangedFile> getAnalyzableFiles() {
+        return files.stream()
+                .filter(file -> !"unchanged".equals(file.getStatus()))
+                .filter(file -> GithubService.isAnalyzable(file.getFilename())
+                        || (file.getPrevious_filename() != null && GithubService.isAnalyzable(file.getPrevious_filename())))
+                .toList();
+    }
+}
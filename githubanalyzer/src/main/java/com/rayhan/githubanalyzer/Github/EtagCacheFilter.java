@@ -0,0 +1,155 @@
+package com.rayhan.githubanalyzer.Github;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conditional-request cache for GitHub API metadata.
+ *
+ * Successful JSON GET responses that carry an ETag are kept (headers and body bytes) per URL. The next
+ * request for that URL is sent with If-None-Match, and a 304 answer, which GitHub does not count
+ * against the rate limit, is replayed to the caller as the cached 200 response. Entries expire after
+ * github.etag-cache.ttl-minutes and the least recently used ones are dropped past
+ * github.etag-cache.max-entries.
+ */
+@Component
+public class EtagCacheFilter implements ExchangeFilterFunction {
+
+    private final Duration ttl;
+    private final int maxBodyBytes;
+    private final Map<String, CachedResponse> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public EtagCacheFilter(@Value("${github.etag-cache.ttl-minutes:60}") long ttlMinutes,
+                           @Value("${github.etag-cache.max-entries:5000}") int maxEntries,
+                           @Value("${github.etag-cache.max-body-bytes:2097152}") int maxBodyBytes,
+                           MeterRegistry meterRegistry) {
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.maxBodyBytes = maxBodyBytes;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        FunctionCounter.builder("cache.requests", hits, AtomicLong::get)
+                .tags("cache", "etag", "result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.requests", misses, AtomicLong::get)
+                .tags("cache", "etag", "result", "miss")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+
+        String key = request.url().toString();
+        CachedResponse cached = lookup(key);
+        ClientRequest conditionalRequest = cached == null
+                ? request
+                : ClientRequest.from(request).header(HttpHeaders.IF_NONE_MATCH, cached.etag()).build();
+
+        return next.exchange(conditionalRequest)
+                .flatMap(response -> {
+                    if (cached != null && response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                        hits.incrementAndGet();
+                        return response.releaseBody().thenReturn(replay(cached, response));
+                    }
+
+                    String etag = response.headers().asHttpHeaders().getETag();
+                    if (!response.statusCode().is2xxSuccessful() || etag == null || !isJson(response)
+                            || response.headers().contentLength().orElse(0) > maxBodyBytes) {
+                        return Mono.just(response);
+                    }
+
+                    misses.incrementAndGet();
+                    return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class))
+                            .map(buffer -> {
+                                byte[] body = new byte[buffer.readableByteCount()];
+                                buffer.read(body);
+                                DataBufferUtils.release(buffer);
+                                return body;
+                            })
+                            .defaultIfEmpty(new byte[0])
+                            .map(body -> {
+                                if (body.length <= maxBodyBytes) {
+                                    store(key, new CachedResponse(etag, HttpHeaders.readOnlyHttpHeaders(response.headers().asHttpHeaders()), body, Instant.now()));
+                                }
+                                return response.mutate()
+                                        .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)))
+                                        .build();
+                            });
+                });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        synchronized (cache) {
+            stats.put("entries", cache.size());
+        }
+        return stats;
+    }
+
+    private CachedResponse lookup(String key) {
+        synchronized (cache) {
+            CachedResponse cached = cache.get(key);
+            if (cached != null && cached.storedAt().plus(ttl).isBefore(Instant.now())) {
+                cache.remove(key);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void store(String key, CachedResponse response) {
+        synchronized (cache) {
+            cache.put(key, response);
+        }
+    }
+
+    private boolean isJson(ClientResponse response) {
+        return response.headers().contentType()
+                .map(type -> type.isCompatibleWith(MediaType.APPLICATION_JSON) || type.getSubtype().endsWith("+json"))
+                .orElse(false);
+    }
+
+    private ClientResponse replay(CachedResponse cached, ClientResponse notModified) {
+        return ClientResponse.create(HttpStatus.OK, notModified.strategies())
+                .headers(headers -> headers.addAll(cached.headers()))
+                .request(notModified.request())
+                .body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(cached.body()))))
+                .build();
+    }
+
+    private record CachedResponse(String etag, HttpHeaders headers, byte[] body, Instant storedAt) {
+    }
+}
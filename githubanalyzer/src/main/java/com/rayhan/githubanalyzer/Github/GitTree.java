@@ -0,0 +1,35 @@
+package com.rayhan.githubanalyzer.Github;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GitTree {
+
+    private String sha;
+    private boolean truncated;
+    private List<GitTreeEntry> tree = new ArrayList<>();
+
+    public String getSha() {
+        return sha;
+    }
+
+    public void setSha(String sha) {
+        this.sha = sha;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public List<GitTreeEntry> getTree() {
+        return tree;
+    }
+
+    public void setTree(List<GitTreeEntry> tree) {
+        this.tree = tree;
+    }
+}
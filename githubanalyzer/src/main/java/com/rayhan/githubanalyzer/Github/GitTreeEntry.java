@@ -0,0 +1,49 @@
+package com.rayhan.githubanalyzer.Github;
+
+public class GitTreeEntry {
+
+    private String path;
+    private String type;
+    private String sha;
+    private long size;
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getSha() {
+        return sha;
+    }
+
+    public void setSha(String sha) {
+        this.sha = sha;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getName() {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    public boolean isBlob() {
+        return "blob".equals(type);
+    }
+}
@@ -18,6 +18,8 @@ public class Github {
     private String location;
     private String created_at;
     private String username;
+    private long size;
+    private String default_branch;
 
     public String getUsername() {
         return username;
@@ -150,4 +152,20 @@ public class Github {
     public void setForks_count(int forks_count) {
         this.forks_count = forks_count;
     }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getDefault_branch() {
+        return default_branch;
+    }
+
+    public void setDefault_branch(String default_branch) {
+        this.default_branch = default_branch;
+    }
 }
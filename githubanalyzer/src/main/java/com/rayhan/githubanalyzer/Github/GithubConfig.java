@@ -1,5 +1,7 @@
 package com.rayhan.githubanalyzer.Github;
 
+import com.rayhan.githubanalyzer.HttpClientFactory;
+import com.rayhan.githubanalyzer.IdempotentRetryFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,12 +14,41 @@ public class GithubConfig {
     @Value("${github.token}")
     private String githubToken;
 
+    @Value("${github.api.base-url:https://api.github.com}")
+    private String apiBaseUrl;
+
+    @Value("${github.raw.base-url:https://raw.githubusercontent.com}")
+    private String rawBaseUrl;
+
+    /**
+     * Client for api.github.com, on its own "github" connection pool.
+     */
     @Bean
-    public WebClient githubWebClient(WebClient.Builder builder) {
-        return builder
-                .baseUrl("https://api.github.com")
+    public WebClient githubWebClient(WebClient.Builder builder, HttpClientFactory httpClients,
+                                     EtagCacheFilter etagCacheFilter, IdempotentRetryFilter retryFilter,
+                                     GithubRateLimiter githubRateLimiter) {
+        return httpClients.configure("github", apiBaseUrl, builder)
+                .baseUrl(apiBaseUrl)
                 .defaultHeader("Authorization", "Bearer " + githubToken)
                 .defaultHeader(HttpHeaders.ACCEPT, "application/vnd.github+json")
+                .filter(etagCacheFilter)
+                // Retries go back through the limiter so every attempt is counted against the budget
+                .filter(retryFilter)
+                // Inside the ETag filter so the limiter sees the real 304s and their rate-limit headers
+                .filter(githubRateLimiter)
+                .build();
+    }
+
+    /**
+     * Client for raw.githubusercontent.com file downloads, on the "github-raw" pool. Raw content is
+     * not counted against the API rate limit, so it skips the limiter and the ETag cache.
+     */
+    @Bean
+    public WebClient rawContentWebClient(WebClient.Builder builder, HttpClientFactory httpClients,
+                                         IdempotentRetryFilter retryFilter) {
+        return httpClients.configure("github-raw", rawBaseUrl, builder)
+                .defaultHeader("Authorization", "Bearer " + githubToken)
+                .filter(retryFilter)
                 .build();
     }
 }
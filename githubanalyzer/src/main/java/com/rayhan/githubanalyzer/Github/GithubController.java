@@ -1,8 +1,10 @@
 package com.rayhan.githubanalyzer.Github;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
@@ -14,9 +16,13 @@ import java.util.Map;
 public class GithubController {
 
     private final GithubService githubService;
+    private final BlobCache blobCache;
+    private final EtagCacheFilter etagCacheFilter;
 
-    public GithubController(GithubService githubService) {
+    public GithubController(GithubService githubService, BlobCache blobCache, EtagCacheFilter etagCacheFilter) {
         this.githubService = githubService;
+        this.blobCache = blobCache;
+        this.etagCacheFilter = etagCacheFilter;
     }
 
     @GetMapping("/repo-content")
@@ -28,6 +34,20 @@ public class GithubController {
                 .map(ResponseEntity::ok);
     }
 
+    /**
+     * Streaming variant of /repo-content: one {repo, path, content, sha} JSON object per line, written
+     * and flushed as each file is fetched. Files are requested as the client reads them, so a slow
+     * client throttles the crawl, and no thread is held while waiting for the next file. Compression
+     * is left to server.compression.
+     */
+    @GetMapping(value = "/repo-content/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RepoFile> streamRepoContents(
+            @RequestParam String owner,
+            @RequestParam String repo) {
+
+        return githubService.streamRepoContents(owner, repo, "");
+    }
+
 //    @GetMapping("/allrepos")
 //    public Mono<ResponseEntity<Map<String, Object>>> getAllRepos(
 //            @RequestParam String owner
@@ -54,6 +74,11 @@ public class GithubController {
 
 
 
+    @GetMapping(value = "/allrepos/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Github> streamAllRepos(@RequestParam String owner) {
+        return githubService.streamAllRepos(owner, false);
+    }
+
     @GetMapping("/userinfo")
     public Mono<ResponseEntity<Github>> getUserInfo(@RequestParam String owner) {
         return githubService.getInfo(owner)
@@ -68,11 +93,22 @@ public class GithubController {
         return githubService.getMultipleRepoContents(username, repos);
     }
 
+    /**
+     * Streaming variant of /{username}/savedrepocontent, with the same lines as /repo-content/stream.
+     */
+    @GetMapping(value = "/{username}/savedrepocontent/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RepoFile> streamAllCodeFromRepos(
+            @PathVariable String username,
+            @RequestParam List<String> repos) {
 
+        return githubService.streamMultipleRepoContents(username, repos);
+    }
 
-
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("blobs", blobCache.getStats());
+        response.put("etags", etagCacheFilter.getStats());
+        return ResponseEntity.ok(response);
+    }
 }
-
-
-
-
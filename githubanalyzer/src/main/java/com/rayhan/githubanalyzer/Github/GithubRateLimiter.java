@@ -0,0 +1,298 @@
+package com.rayhan.githubanalyzer.Github;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedules every call to api.github.com against the rate limit GitHub reports back.
+ *
+ * X-RateLimit-Remaining / X-RateLimit-Reset are tracked per token. Requests wait in a priority queue
+ * (INTERACTIVE ahead of BULK) until the budget allows them: bulk requests leave
+ * github.ratelimit.interactive-reserve calls untouched for interactive ones, and once fewer than
+ * github.ratelimit.smoothing-threshold calls remain, requests are spaced evenly over what is left of
+ * the window instead of going out in a burst. A 403/429 that carries Retry-After or an exhausted
+ * budget holds the token until the limit lifts and is retried.
+ */
+@Component
+public class GithubRateLimiter implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(GithubRateLimiter.class);
+
+    public enum Priority { INTERACTIVE, BULK }
+
+    public static final String PRIORITY_ATTRIBUTE = GithubRateLimiter.class.getName() + ".priority";
+
+    private static final String API_HOST = "api.github.com";
+    private static final String ANONYMOUS = "anonymous";
+
+    private final int interactiveReserve;
+    private final int smoothingThreshold;
+    private final int maxRetries;
+
+    private final Map<String, Budget> budgets = new HashMap<>();
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+    private final AtomicLong sequence = new AtomicLong();
+    // The pending drain pass, when it runs, and which scheduling it belongs to
+    private Disposable drainTask;
+    private long drainAt;
+    private long drainGeneration;
+
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+
+    public GithubRateLimiter(@Value("${github.ratelimit.interactive-reserve:100}") int interactiveReserve,
+                             @Value("${github.ratelimit.smoothing-threshold:500}") int smoothingThreshold,
+                             @Value("${github.ratelimit.max-retries:2}") int maxRetries,
+                             MeterRegistry meterRegistry) {
+        this.interactiveReserve = interactiveReserve;
+        this.smoothingThreshold = smoothingThreshold;
+        this.maxRetries = maxRetries;
+
+        Gauge.builder("github.ratelimit.queue.depth", this, GithubRateLimiter::getQueueDepth)
+                .description("Requests waiting for GitHub rate-limit budget")
+                .register(meterRegistry);
+        Gauge.builder("github.ratelimit.remaining", this, GithubRateLimiter::getLowestRemaining)
+                .description("Lowest remaining GitHub rate-limit budget across tokens")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            waitTimers.put(priority, Timer.builder("github.ratelimit.wait")
+                    .description("Time requests spent queued for GitHub rate-limit budget")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!API_HOST.equalsIgnoreCase(request.url().getHost())) {
+            return next.exchange(request);
+        }
+
+        Priority priority = request.attribute(PRIORITY_ATTRIBUTE)
+                .map(Priority.class::cast)
+                .orElse(Priority.INTERACTIVE);
+        String authorization = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+        String token = authorization != null ? authorization : ANONYMOUS;
+
+        return exchange(request, next, token, priority, 0);
+    }
+
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    public synchronized double getLowestRemaining() {
+        return budgets.values().stream()
+                .mapToInt(budget -> budget.remaining)
+                .filter(remaining -> remaining >= 0)
+                .min()
+                .orElse(-1);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, String token, Priority priority, int attempt) {
+        return acquire(token, priority)
+                .then(Mono.defer(() -> next.exchange(request)))
+                .flatMap(response -> {
+                    boolean limited = update(token, response);
+                    if (limited && attempt < maxRetries) {
+                        log.info("GitHub rate limit hit, retrying {} once the limit lifts", request.url().getPath());
+                        return response.releaseBody()
+                                .then(exchange(request, next, token, priority, attempt + 1));
+                    }
+                    return Mono.just(response);
+                });
+    }
+
+    private Mono<Void> acquire(String token, Priority priority) {
+        return Mono.defer(() -> {
+            Waiter waiter = new Waiter(token, priority, sequence.incrementAndGet(), System.nanoTime(), Sinks.empty());
+            synchronized (this) {
+                queue.add(waiter);
+            }
+            drain();
+            return waiter.sink().asMono()
+                    .doOnCancel(() -> {
+                        synchronized (this) {
+                            queue.remove(waiter);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Releases queued requests in priority order while their token has budget, and schedules another
+     * pass for when the first blocked request may go. A pass that is already scheduled is moved
+     * forward when the head of the queue may go sooner, so an interactive request only held back by
+     * spacing does not wait for a bulk request's budget reset.
+     */
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            long delay = 0;
+            while (!queue.isEmpty()) {
+                Waiter head = queue.peek();
+                Budget budget = budgets.computeIfAbsent(head.token(), token -> new Budget());
+                delay = budget.delayMillis(head.priority(), now);
+                if (delay > 0) {
+                    break;
+                }
+                queue.poll();
+                budget.consume(now);
+                granted.add(head);
+            }
+
+            if (delay > 0) {
+                scheduleDrain(now + delay);
+            }
+        }
+
+        for (Waiter waiter : granted) {
+            waitTimers.get(waiter.priority()).record(System.nanoTime() - waiter.enqueuedAt(), TimeUnit.NANOSECONDS);
+            waiter.sink().tryEmitEmpty();
+        }
+    }
+
+    private void scheduleDrain(long at) {
+        if (drainTask != null && drainAt <= at) {
+            return;
+        }
+        if (drainTask != null) {
+            drainTask.dispose();
+        }
+
+        long generation = ++drainGeneration;
+        drainAt = at;
+        drainTask = Schedulers.parallel().schedule(() -> {
+            synchronized (this) {
+                if (drainGeneration == generation) {
+                    drainTask = null;
+                }
+            }
+            drain();
+        }, Math.max(0, at - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Updates the token's budget from the response headers and reports whether the response was a
+     * rate-limit rejection worth retrying.
+     */
+    private boolean update(String token, ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        int status = response.statusCode().value();
+        long now = System.currentTimeMillis();
+        // Headers that cannot be parsed are ignored rather than failing the response
+        Long remaining = parseLong(headers.getFirst("X-RateLimit-Remaining"));
+        Long reset = parseLong(headers.getFirst("X-RateLimit-Reset"));
+        long retryAfterMillis = retryAfterMillis(headers.getFirst(HttpHeaders.RETRY_AFTER), now);
+        boolean limited;
+
+        synchronized (this) {
+            Budget budget = budgets.computeIfAbsent(token, key -> new Budget());
+            if (remaining != null && reset != null) {
+                budget.remaining = (int) Math.min(Integer.MAX_VALUE, Math.max(0, remaining));
+                budget.resetAt = reset * 1000;
+            }
+
+            boolean rejected = status == HttpStatus.FORBIDDEN.value() || status == HttpStatus.TOO_MANY_REQUESTS.value();
+            limited = rejected && (retryAfterMillis >= 0 || budget.remaining == 0);
+            if (limited && retryAfterMillis >= 0) {
+                // Secondary limits only tell us how long to back off
+                budget.blockedUntil = now + retryAfterMillis;
+            }
+        }
+
+        drain();
+        return limited;
+    }
+
+    /**
+     * Milliseconds to wait according to a Retry-After value, which is either delta-seconds or an
+     * HTTP date (RFC 9110). -1 when the header is missing or cannot be parsed.
+     */
+    static long retryAfterMillis(String retryAfter, long now) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return -1;
+        }
+        Long seconds = parseLong(retryAfter);
+        if (seconds != null) {
+            return seconds >= 0 ? seconds * 1000 : -1;
+        }
+        try {
+            long at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, at - now);
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private final class Budget {
+        // -1 until GitHub has told us the budget for this token
+        private int remaining = -1;
+        private long resetAt;
+        private long blockedUntil;
+        private long nextSlot;
+
+        private long delayMillis(Priority priority, long now) {
+            if (blockedUntil > now) {
+                return blockedUntil - now;
+            }
+            if (remaining < 0 || resetAt <= now) {
+                return 0;
+            }
+
+            int available = priority == Priority.BULK ? remaining - interactiveReserve : remaining;
+            if (available <= 0) {
+                return resetAt - now;
+            }
+            return remaining < smoothingThreshold ? Math.max(0, nextSlot - now) : 0;
+        }
+
+        private void consume(long now) {
+            if (remaining < 0 || resetAt <= now) {
+                return;
+            }
+            if (remaining < smoothingThreshold) {
+                long spacing = (resetAt - now) / Math.max(1, remaining);
+                nextSlot = Math.max(now, nextSlot) + spacing;
+            }
+            remaining--;
+        }
+    }
+
+    private record Waiter(String token, Priority priority, long sequence, long enqueuedAt, Sinks.Empty<Void> sink) {
+    }
+}
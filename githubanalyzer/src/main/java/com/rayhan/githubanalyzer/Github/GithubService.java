@@ -1,42 +1,178 @@
 package com.rayhan.githubanalyzer.Github;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import org.springframework.core.ParameterizedTypeReference;
+import com.rayhan.githubanalyzer.AnalyzerMetrics;
+import com.rayhan.githubanalyzer.HttpClientFactory;
+import com.rayhan.githubanalyzer.KeyedConcurrency;
+import com.rayhan.githubanalyzer.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 @Service
 public class GithubService {
 
+    private static final Logger log = LoggerFactory.getLogger(GithubService.class);
+
     private final WebClient webClient;
+    private final WebClient rawContentWebClient;
+    private final WebClient archiveWebClient;
+    private final BlobCache blobCache;
+    private final RepoFileFilter fileFilter;
+    private final AnalyzerMetrics metrics;
+    private final SingleFlight<String, Map<String, String>> repoContentFlights = new SingleFlight<>();
+    // Repositories fetched together (forks, templates) often share blobs, each is downloaded once
+    private final SingleFlight<String, String> blobFlights = new SingleFlight<>();
     private static final String DEFAULT_BRANCH = "main";
 
     private static final List<String> VALID_EXTENSIONS = List.of("java", "py", "js", "cpp", "c", "ipynb", "php");
 
-    public GithubService(WebClient webClient) {
+    // Build and dependency manifests, read alongside the sources since they say what the project is built with
+    private static final Set<String> BUILD_FILES = Set.of("pom.xml", "build.gradle", "build.gradle.kts", "package.json",
+            "requirements.txt", "pyproject.toml", "CMakeLists.txt", "Makefile", "Dockerfile", "composer.json");
+
+    // URI template rather than a formatted URL, so request metrics group all pages under one uri tag
+    private static final String REPOS_PAGE_TEMPLATE = "/users/{owner}/repos?page={page}&per_page=100";
+
+    // Picks the page number out of the rel="last" entry of a Link header
+    private static final Pattern LAST_PAGE_LINK = Pattern.compile("[?&]page=(\\d+)[^>]*>;\\s*rel=\"last\"");
+
+    // Number of DataBuffers requested ahead of the zip reader while streaming an archive
+    private static final int ARCHIVE_PREFETCH = 16;
+
+    @Value("${github.raw.base-url:https://raw.githubusercontent.com}")
+    private String rawBaseUrl;
+
+    @Value("${github.ingest.mode:auto}")
+    private String ingestMode;
+
+    @Value("${github.ingest.archive-max-size-kb:51200}")
+    private long archiveMaxSizeKb;
+
+    // Archive downloads only pay off when this many files are missing from the blob cache
+    @Value("${github.ingest.archive-min-files:20}")
+    private int archiveMinFiles;
+
+    // Upper bound on raw file downloads in flight for a single repository
+    @Value("${github.fetch.concurrency:8}")
+    private int fetchConcurrency;
+
+    @Value("${github.pagination.concurrency:6}")
+    private int paginationConcurrency;
+
+    // Repositories crawled at once in a multi-repository fetch, in total and per owner
+    @Value("${github.multi.concurrency:8}")
+    private int multiRepoConcurrency;
+
+    @Value("${github.multi.per-owner-concurrency:4}")
+    private int perOwnerConcurrency;
+
+    public GithubService(@Qualifier("githubWebClient") WebClient webClient,
+                         @Qualifier("rawContentWebClient") WebClient rawContentWebClient,
+                         HttpClientFactory httpClients, BlobCache blobCache, RepoFileFilter fileFilter,
+                         AnalyzerMetrics metrics,
+                         @Value("${github.api.base-url:https://api.github.com}") String apiBaseUrl) {
         this.webClient = webClient;
+        this.rawContentWebClient = rawContentWebClient;
+        this.blobCache = blobCache;
+        this.fileFilter = fileFilter;
+        this.metrics = metrics;
+        // The zipball endpoint answers with a redirect to codeload.github.com, so the archive
+        // client has to follow redirects while keeping the base url and auth header. It has its own
+        // pool since archive downloads hold a connection for a long time.
+        this.archiveWebClient = webClient.mutate()
+                .clientConnector(new ReactorClientHttpConnector(httpClients.httpClient("github-archive", apiBaseUrl).followRedirect(true)))
+                .build();
     }
 
    public Mono<Github> getInfo(String owner){
-       String theurl = String.format("https://api.github.com/users/%s", owner);
         return webClient.get()
-                .uri(theurl)
+                .uri("/users/{owner}", owner)
                 .retrieve()
                 .bodyToMono(Github.class);
 
    }
 
+    public Mono<Github> getRepoMetadata(String owner, String repo) {
+        return webClient.get()
+                .uri("/repos/{owner}/{repo}", owner, repo)
+                .attribute(GithubRateLimiter.PRIORITY_ATTRIBUTE, GithubRateLimiter.Priority.BULK)
+                .retrieve()
+                .bodyToMono(Github.class);
+    }
+
+    /**
+     * Resolves the default branch and reads the commit and root tree SHA it points to. Cheap enough to
+     * call before every analysis to tell whether a repository changed. A branch payload without them
+     * gives a head that is not isResolved().
+     */
+    public Mono<RepoHead> getRepoHead(String owner, String repo) {
+        return getRepoMetadata(owner, repo)
+                .flatMap(metadata -> {
+                    String branch = metadata.getDefault_branch() != null ? metadata.getDefault_branch() : DEFAULT_BRANCH;
+                    return webClient.get()
+                            .uri("/repos/{owner}/{repo}/branches/{branch}", owner, repo, branch)
+                            .retrieve()
+                            .bodyToMono(JsonNode.class)
+                            .map(branchNode -> new RepoHead(branch,
+                                    branchNode.path("commit").path("sha").asText(),
+                                    branchNode.path("commit").path("commit").path("tree").path("sha").asText()));
+                });
+    }
+
+    public Mono<CommitComparison> compareCommits(String owner, String repo, String base, String head) {
+        return webClient.get()
+                .uri("/repos/{owner}/{repo}/compare/{base}...{head}", owner, repo, base, head)
+                .retrieve()
+                .bodyToMono(CommitComparison.class);
+    }
+
+    /**
+     * Contents at the given commit of the changed files that still exist, under the same filters as a
+     * full crawl. Fails if any of them cannot be downloaded, since an update that silently misses a
+     * changed file would be cached and become the base of the next one.
+     */
+    public Mono<Map<String, String>> getChangedContents(String owner, String repo, String commitSha, List<ChangedFile> files) {
+        return Flux.fromIterable(files)
+                .filter(file -> !file.isRemoved() && isAnalyzable(file.getFilename()))
+                .flatMap(file -> {
+                    GitTreeEntry entry = new GitTreeEntry();
+                    entry.setPath(file.getFilename());
+                    entry.setType("blob");
+                    entry.setSha(file.getSha());
+                    return fetchRawFile(owner, repo, commitSha, entry);
+                }, fetchConcurrency)
+                .filter(file -> file.getContent().getBytes(StandardCharsets.UTF_8).length <= fileFilter.getMaxFileBytes())
+                .filter(fileFilter::isUsable)
+                .collectMap(RepoFile::getPath, RepoFile::getContent);
+    }
+
     public Mono<List<Github>> getAllRepos(String owner){
-        String theurl = String.format("https://api.github.com/users/%s/repos", owner);
         return webClient.get()
-                .uri(theurl)
+                .uri("/users/{owner}/repos", owner)
                 .retrieve()
                 .bodyToFlux(Github.class)
                 .collectList();
@@ -44,31 +180,51 @@ public class GithubService {
 
 
     public Mono<List<Github>> getAllReposPagination(String owner) {
-        return fetchReposPage(owner, 1, new ArrayList<>());
+        return streamAllRepos(owner, true).collectList();
     }
 
-    private Mono<List<Github>> fetchReposPage(String owner, int page, List<Github> accumulated) {
-        String url = String.format("https://api.github.com/users/%s/repos?page=%d&per_page=100", owner, page);
-
+    /**
+     * Emits every public repo of the owner. The first page's Link header tells how many pages there
+     * are, and the remaining pages are then requested concurrently (github.pagination.concurrency).
+     * When ordered is false repos are emitted as soon as their page arrives rather than in page order.
+     */
+    public Flux<Github> streamAllRepos(String owner, boolean ordered) {
         return webClient.get()
-                .uri(url)
+                .uri(REPOS_PAGE_TEMPLATE, owner, 1)
                 .retrieve()
-                .bodyToFlux(Github.class)
-                .collectList()
-                .flatMap(repos -> {
-                    if (repos.isEmpty()) {
-                        return Mono.just(accumulated);
-                    } else {
-                        accumulated.addAll(repos);
-                        return fetchReposPage(owner, page + 1, accumulated); // recurse
+                .toEntityList(Github.class)
+                .flatMapMany(firstPage -> {
+                    Flux<Github> firstRepos = Flux.fromIterable(firstPage.getBody() != null ? firstPage.getBody() : List.of());
+                    int lastPage = parseLastPage(firstPage.getHeaders().getFirst(HttpHeaders.LINK));
+                    if (lastPage <= 1) {
+                        return firstRepos;
                     }
+
+                    Flux<Integer> remainingPages = Flux.range(2, lastPage - 1);
+                    Flux<Github> remainingRepos = ordered
+                            ? remainingPages.flatMapSequential(page -> fetchReposPage(owner, page), paginationConcurrency)
+                            : remainingPages.flatMap(page -> fetchReposPage(owner, page), paginationConcurrency);
+                    return firstRepos.concatWith(remainingRepos);
                 });
     }
 
+    private Flux<Github> fetchReposPage(String owner, int page) {
+        return webClient.get()
+                .uri(REPOS_PAGE_TEMPLATE, owner, page)
+                .retrieve()
+                .bodyToFlux(Github.class);
+    }
+
+    private int parseLastPage(String linkHeader) {
+        if (linkHeader == null) {
+            return 1;
+        }
+        Matcher matcher = LAST_PAGE_LINK.matcher(linkHeader);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
 
-    private String buildRawFileUrl(String owner, String repo, String branch, String filePath) {
-        String baseUrl = "https://raw.githubusercontent.com";
 
+    static String buildRawFileUrl(String baseUrl, String owner, String repo, String branch, String filePath) {
         String encodedPath = Arrays.stream(filePath.split("/"))
                 .map(segment -> segment.replace(" ", "%20"))
                 .collect(Collectors.joining("/"));
@@ -78,53 +234,257 @@ public class GithubService {
         return finalUrl;
     }
 
+    /**
+     * Concurrent calls for the same repository and path share one crawl.
+     */
     public Mono<Map<String, String>> getRepoContents(String owner, String repo, String path) {
-        String endpoint = String.format("/repos/%s/%s/contents/%s", owner, repo, path == null ? "" : path);
+        String key = String.format("%s/%s@HEAD:%s", owner.toLowerCase(), repo.toLowerCase(), path == null ? "" : path);
 
+        return repoContentFlights.execute(key, () -> streamRepoContents(owner, repo, path)
+                .collectMap(RepoFile::getPath, RepoFile::getContent));
+    }
+
+    /**
+     * Streams every source and build file under the given path,
+     * read from the repository's default branch. The branch is listed with one recursive Git Trees
+     * call and files already in the blob cache are served from disk. When enough files are missing
+     * and the repository is at most github.ingest.archive-max-size-kb, they are read from a single
+     * zipball download; otherwise each missing file is fetched separately. Which files are read at all
+     * is decided by RepoFileFilter from their sizes, before anything is downloaded.
+     *
+     * Files are produced on demand: at most github.fetch.concurrency downloads, or one archive entry,
+     * are in flight ahead of the subscriber.
+     */
+    public Flux<RepoFile> streamRepoContents(String owner, String repo, String path) {
+        String prefix = directoryPrefix(path);
+
+        return getRepoMetadata(owner, repo)
+                .flatMapMany(metadata -> {
+                    String branch = metadata.getDefault_branch() != null ? metadata.getDefault_branch() : DEFAULT_BRANCH;
+                    if ("archive".equalsIgnoreCase(ingestMode)) {
+                        return streamArchiveContents(owner, repo, branch, prefix, null);
+                    }
+
+                    return getRepoTree(owner, repo, branch)
+                            .flatMapMany(tree -> {
+                                if (tree.isTruncated()) {
+                                    // The Trees API caps recursive listings, so very large trees are read from the archive instead
+                                    log.info("Tree listing truncated for {}/{}, reading archive instead", owner, repo);
+                                    return streamArchiveContents(owner, repo, branch, prefix, null);
+                                }
+
+                                List<GitTreeEntry> files = fileFilter.select(owner + "/" + repo, tree.getTree().stream()
+                                        .filter(entry -> entry.isBlob()
+                                                && entry.getPath().startsWith(prefix)
+                                                && isAnalyzable(entry.getName()))
+                                        .toList());
+                                long uncached = files.stream().filter(entry -> !blobCache.contains(entry.getSha())).count();
+
+                                boolean useArchive = !"contents".equalsIgnoreCase(ingestMode)
+                                        && metadata.getSize() <= archiveMaxSizeKb
+                                        && uncached >= archiveMinFiles;
+                                if (useArchive) {
+                                    Set<String> selected = files.stream().map(GitTreeEntry::getPath).collect(Collectors.toSet());
+                                    return streamArchiveContents(owner, repo, branch, prefix, selected);
+                                }
+
+                                return Flux.fromIterable(files)
+                                        .flatMap(entry -> fetchRawFile(owner, repo, branch, entry), fetchConcurrency, 1);
+                            });
+                })
+                .filter(fileFilter::isUsable);
+    }
+
+    /**
+     * The path as a directory prefix ending in "/", so "src" matches src/ but not srcgen/. Blank means
+     * the whole repository.
+     */
+    static String directoryPrefix(String path) {
+        if (path == null) {
+            return "";
+        }
+        String trimmed = path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? "" : trimmed + "/";
+    }
+
+    public Mono<GitTree> getRepoTree(String owner, String repo, String branch) {
         return webClient.get()
-                .uri(endpoint)
+                .uri("/repos/{owner}/{repo}/git/trees/{branch}?recursive=1", owner, repo, branch)
+                .attribute(GithubRateLimiter.PRIORITY_ATTRIBUTE, GithubRateLimiter.Priority.BULK)
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
-                .flatMapMany(Flux::fromIterable)
-                .flatMap(item -> {
-                    String type = (String) item.get("type");
-                    String name = (String) item.get("name");
-                    String filePath = (String) item.get("path");
-
-                    if ("dir".equals(type)) {
-                        return getRepoContents(owner, repo, filePath)
-                                .flatMapMany(map -> Flux.fromIterable(map.entrySet()));
-                    } else if ("file".equals(type)) {
-                        String extension = getExtension(name);
-                        if (VALID_EXTENSIONS.contains(extension)) {
-                            String rawUrl = buildRawFileUrl(owner, repo, "main", filePath);
-
-                            return webClient.get()
-                                    .uri(URI.create(rawUrl))
-                                    .retrieve()
-                                    .bodyToMono(String.class)
-                                    .map(content -> Map.entry(filePath, content))
-                                    .flux();
-                        }
+                .bodyToMono(GitTree.class);
+    }
+
+    private Mono<RepoFile> fetchRawFile(String owner, String repo, String branch, GitTreeEntry entry) {
+        // Cache reads and writes touch the disk, keep them off the event loop
+        return Mono.fromCallable(() -> blobCache.get(entry.getSha()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(cached -> {
+                    if (cached.isPresent()) {
+                        metrics.fileRead("cache", entry.getSize());
+                        return Mono.just(new RepoFile(repo, entry.getPath(), cached.get(), entry.getSha()));
                     }
-                    return Flux.empty();
+                    return downloadRawFile(owner, repo, branch, entry);
+                });
+    }
+
+    private Mono<RepoFile> downloadRawFile(String owner, String repo, String branch, GitTreeEntry entry) {
+        String rawUrl = buildRawFileUrl(rawBaseUrl, owner, repo, branch, entry.getPath());
+        boolean[] downloaded = {false};
+
+        return blobFlights.execute(entry.getSha(), () -> {
+                    downloaded[0] = true;
+                    return rawContentWebClient.get()
+                            .uri(URI.create(rawUrl))
+                            .retrieve()
+                            .bodyToMono(byte[].class)
+                            .publishOn(Schedulers.boundedElastic())
+                            .map(bytes -> {
+                                metrics.fileRead("raw", bytes.length);
+                                String content = new String(bytes, StandardCharsets.UTF_8);
+                                blobCache.put(entry.getSha(), content);
+                                return content;
+                            });
                 })
-                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+                .map(content -> {
+                    if (!downloaded[0]) {
+                        // Joined a download another repository had already started for this blob
+                        metrics.fileRead("shared", entry.getSize());
+                    }
+                    return new RepoFile(repo, entry.getPath(), content, entry.getSha());
+                });
     }
 
+    /**
+     * Downloads the repository zipball once and decompresses it as it arrives. Only the selected
+     * entries are read into memory, everything else is skipped inside the zip stream. Without a
+     * selection (no usable tree listing) analyzable entries are read in archive order
+     * until the repository byte budget is used up.
+     */
+    private Flux<RepoFile> streamArchiveContents(String owner, String repo, String branch, String prefix, Set<String> selected) {
+        Flux<DataBuffer> archive = archiveWebClient.get()
+                .uri("/repos/{owner}/{repo}/zipball/{branch}", owner, repo, branch)
+                .attribute(GithubRateLimiter.PRIORITY_ATTRIBUTE, GithubRateLimiter.Priority.BULK)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+
+        return Flux.using(
+                        () -> new ZipInputStream(DataBufferUtils.subscriberInputStream(archive, ARCHIVE_PREFETCH)),
+                        zip -> {
+                            long[] remaining = {fileFilter.getMaxRepoBytes()};
+                            return Flux.<RepoFile>generate(sink -> readNextArchiveEntry(zip, repo, prefix, selected, remaining, sink));
+                        },
+                        this::closeQuietly)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void readNextArchiveEntry(ZipInputStream zip, String repo, String prefix, Set<String> selected,
+                                      long[] remaining, SynchronousSink<RepoFile> sink) {
+        try {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                // Zipball entries are nested under a "{owner}-{repo}-{sha}/" root folder
+                String entryName = entry.getName();
+                String filePath = entryName.substring(entryName.indexOf('/') + 1);
+                String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+
+                boolean wanted = selected != null
+                        ? selected.contains(filePath)
+                        : filePath.startsWith(prefix) && isAnalyzable(fileName)
+                                && fileFilter.fits(filePath, Math.max(entry.getSize(), 0), remaining[0]);
+                if (wanted) {
+                    // Entry sizes are not always in the local header, so never read past the file budget
+                    byte[] bytes = zip.readNBytes((int) Math.min(fileFilter.getMaxFileBytes(), remaining[0]) + 1);
+                    if (bytes.length > fileFilter.getMaxFileBytes() || bytes.length > remaining[0]) {
+                        continue;
+                    }
+                    remaining[0] -= bytes.length;
+                    metrics.fileRead("archive", bytes.length);
+                    String content = new String(bytes, StandardCharsets.UTF_8);
+                    String sha = BlobCache.gitBlobSha(bytes);
+                    blobCache.put(sha, content);
+                    sink.next(new RepoFile(repo, filePath, content, sha));
+                    return;
+                }
+                if (selected == null && remaining[0] <= 0) {
+                    // Budget used up, no need to inflate the rest of the archive
+                    break;
+                }
+            }
+            sink.complete();
+        } catch (IOException e) {
+            sink.error(new UncheckedIOException("Error reading repository archive", e));
+        }
+    }
+
+    private void closeQuietly(ZipInputStream zip) {
+        try {
+            zip.close();
+        } catch (IOException e) {
+            log.warn("Error closing repository archive stream: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Contents of several repositories of one owner, keyed by repository name. Repositories that
+     * cannot be fetched are left out.
+     */
     public Mono<Map<String, Map<String, String>>> getMultipleRepoContents(String owner, List<String> repoNames) {
-        List<Mono<Map.Entry<String, Map<String, String>>>> monos = repoNames.stream()
-                .map(repo -> getRepoContents(owner, repo, null)
-                        .map(contents -> Map.entry(repo, contents)))
-                .toList();
+        return fetchRepos(Map.of(owner, repoNames))
+                .filter(RepoFetch::isSucceeded)
+                .collectMap(RepoFetch::getRepo, RepoFetch::getContents);
+    }
 
-        return Flux.merge(monos)
-                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    /**
+     * Streams the files of several repositories of one owner, github.multi.per-owner-concurrency
+     * repositories at a time, each file tagged with its repository.
+     */
+    public Flux<RepoFile> streamMultipleRepoContents(String owner, List<String> repoNames) {
+        return Flux.fromIterable(repoNames)
+                .flatMap(repo -> streamRepoContents(owner, repo, null)
+                                .onErrorResume(e -> {
+                                    log.warn("Skipping {}/{}: {}", owner, repo, e.getMessage());
+                                    return Flux.empty();
+                                }),
+                        Math.max(1, perOwnerConcurrency), 1);
     }
 
+    /**
+     * Fetches repositories across owners in parallel, at most github.multi.concurrency at once and at
+     * most github.multi.per-owner-concurrency of them for the same owner. A repository that fails is
+     * emitted as a failed RepoFetch instead of failing the others.
+     */
+    public Flux<RepoFetch> fetchRepos(Map<String, List<String>> reposByOwner) {
+        return KeyedConcurrency.flatMap(reposByOwner, this::fetchTimed, multiRepoConcurrency, perOwnerConcurrency);
+    }
+
+    private Mono<RepoFetch> fetchTimed(String owner, String repo) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return getRepoContents(owner, repo, null)
+                    .map(contents -> RepoFetch.succeeded(owner, repo, contents, (System.nanoTime() - start) / 1_000_000))
+                    .onErrorResume(e -> {
+                        // Many exceptions carry no message, the failure must still be reported as one
+                        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                        log.warn("Skipping {}/{}: {}", owner, repo, error);
+                        return Mono.just(RepoFetch.failed(owner, repo, error, (System.nanoTime() - start) / 1_000_000));
+                    });
+        });
+    }
 
+    /**
+     * Whether a file is read at all: a source file with one of VALID_EXTENSIONS or one of the
+     * BUILD_FILES. Takes a file name or a path.
+     */
+    static boolean isAnalyzable(String filename) {
+        return VALID_EXTENSIONS.contains(getExtension(filename))
+                || BUILD_FILES.contains(filename.substring(filename.lastIndexOf('/') + 1));
+    }
 
-    private String getExtension(String filename) {
+    static String getExtension(String filename) {
         int lastDot = filename.lastIndexOf('.');
         if (lastDot == -1) return "";
         return filename.substring(lastDot + 1).toLowerCase();
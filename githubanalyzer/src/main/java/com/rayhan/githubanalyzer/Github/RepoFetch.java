@@ -0,0 +1,58 @@
+package com.rayhan.githubanalyzer.Github;
+
+import java.util.Map;
+
+/**
+ * Outcome of fetching one repository as part of a multi-repository fetch: its files, or the reason
+ * it was skipped, and how long it took either way.
+ */
+public class RepoFetch {
+
+    private final String owner;
+    private final String repo;
+    private final boolean succeeded;
+    private final Map<String, String> contents;
+    private final String error;
+    private final long millis;
+
+    private RepoFetch(String owner, String repo, boolean succeeded, Map<String, String> contents, String error, long millis) {
+        this.owner = owner;
+        this.repo = repo;
+        this.succeeded = succeeded;
+        this.contents = contents;
+        this.error = error;
+        this.millis = millis;
+    }
+
+    public static RepoFetch succeeded(String owner, String repo, Map<String, String> contents, long millis) {
+        return new RepoFetch(owner, repo, true, contents, null, millis);
+    }
+
+    public static RepoFetch failed(String owner, String repo, String error, long millis) {
+        return new RepoFetch(owner, repo, false, Map.of(), error, millis);
+    }
+
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getRepo() {
+        return repo;
+    }
+
+    public Map<String, String> getContents() {
+        return contents;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+}
@@ -0,0 +1,36 @@
+package com.rayhan.githubanalyzer.Github;
+
+/**
+ * One source file of a repository as it is streamed out of a crawl. sha is the git blob SHA of the
+ * content.
+ */
+public class RepoFile {
+
+    private final String repo;
+    private final String path;
+    private final String content;
+    private final String sha;
+
+    public RepoFile(String repo, String path, String content, String sha) {
+        this.repo = repo;
+        this.path = path;
+        this.content = content;
+        this.sha = sha;
+    }
+
+    public String getRepo() {
+        return repo;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public String getSha() {
+        return sha;
+    }
+}
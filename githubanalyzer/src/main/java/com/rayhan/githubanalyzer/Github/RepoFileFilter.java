@@ -0,0 +1,123 @@
+package com.rayhan.githubanalyzer.Github;
+
+import com.rayhan.githubanalyzer.CreateReadMe.ReadMePromptBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which files of a repository are worth downloading, using the sizes from the tree listing.
+ *
+ * Files over github.fetch.max-file-bytes and minified bundles are never downloaded. The rest are
+ * ranked the same way the README prompt ranks them, smallest first among equals, and kept until
+ * github.fetch.max-repo-bytes is used up. Downloaded content is checked again for binary data and
+ * minified code, since neither shows in the file name reliably.
+ */
+@Component
+public class RepoFileFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RepoFileFilter.class);
+
+    private static final Pattern MINIFIED_NAME = Pattern.compile("[.-](min|bundle|chunk)\\.js$|(^|/)(vendor|dist)/[^/]*\\.js$", Pattern.CASE_INSENSITIVE);
+
+    // How much of a file is inspected for binary content
+    private static final int BINARY_SNIFF_CHARS = 8000;
+
+    // Minified code packs a whole file into a handful of very long lines
+    private static final int MINIFIED_MIN_CHARS = 2000;
+    private static final int MINIFIED_AVG_LINE_CHARS = 300;
+
+    @Value("${github.fetch.max-file-bytes:524288}")
+    private long maxFileBytes;
+
+    @Value("${github.fetch.max-repo-bytes:8388608}")
+    private long maxRepoBytes;
+
+    public long getMaxFileBytes() {
+        return maxFileBytes;
+    }
+
+    public long getMaxRepoBytes() {
+        return maxRepoBytes;
+    }
+
+    /**
+     * The files to download, most useful first, within the per-file and per-repository budgets.
+     */
+    public List<GitTreeEntry> select(String repo, List<GitTreeEntry> files) {
+        List<GitTreeEntry> candidates = new ArrayList<>();
+        int oversized = 0;
+        for (GitTreeEntry file : files) {
+            if (file.getSize() > maxFileBytes || MINIFIED_NAME.matcher(file.getPath()).find()) {
+                oversized++;
+            } else {
+                candidates.add(file);
+            }
+        }
+        candidates.sort(Comparator.comparingInt((GitTreeEntry file) -> ReadMePromptBuilder.score(file.getPath())).reversed()
+                .thenComparingLong(GitTreeEntry::getSize)
+                .thenComparing(GitTreeEntry::getPath));
+
+        List<GitTreeEntry> selected = new ArrayList<>();
+        long remaining = maxRepoBytes;
+        for (GitTreeEntry file : candidates) {
+            // Keep looking after a miss, smaller lower-ranked files may still fit
+            if (file.getSize() <= remaining) {
+                selected.add(file);
+                remaining -= file.getSize();
+            }
+        }
+
+        int overBudget = candidates.size() - selected.size();
+        if (oversized + overBudget > 0) {
+            log.info("Skipping {} oversized or minified and {} over-budget files of {}, downloading {} ({} bytes)",
+                    oversized, overBudget, repo, selected.size(), maxRepoBytes - remaining);
+        }
+        return selected;
+    }
+
+    /**
+     * Whether a file whose size was not known up front fits the per-file budget and the bytes left of
+     * the repository budget, by name alone.
+     */
+    public boolean fits(String path, long size, long remainingBytes) {
+        return size <= maxFileBytes && size <= remainingBytes && !MINIFIED_NAME.matcher(path).find();
+    }
+
+    /**
+     * Whether downloaded content is readable source rather than binary data or minified code.
+     */
+    public boolean isUsable(RepoFile file) {
+        String content = file.getContent();
+        int sniff = Math.min(content.length(), BINARY_SNIFF_CHARS);
+        int undecodable = 0;
+        for (int i = 0; i < sniff; i++) {
+            char c = content.charAt(i);
+            if (c == '\0') {
+                return false;
+            }
+            if (c == '\uFFFD') {
+                undecodable++;
+            }
+        }
+        // A stray bad byte is fine, text that mostly fails UTF-8 decoding is not
+        if (undecodable > sniff / 100) {
+            return false;
+        }
+
+        // Notebooks keep outputs on long JSON lines, they are not minified
+        if (content.length() >= MINIFIED_MIN_CHARS && !file.getPath().endsWith(".ipynb")) {
+            long lines = content.chars().filter(c -> c == '\n').count() + 1;
+            if (content.length() / lines > MINIFIED_AVG_LINE_CHARS) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package com.rayhan.githubanalyzer.Github;
+
+/**
+ * The commit a repository's default branch currently points to, and that commit's root tree.
+ */
+public class RepoHead {
+
+    private final String branch;
+    private final String commitSha;
+    private final String treeSha;
+
+    public RepoHead(String branch, String commitSha, String treeSha) {
+        this.branch = branch;
+        this.commitSha = commitSha;
+        this.treeSha = treeSha;
+    }
+
+    public String getBranch() {
+        return branch;
+    }
+
+    public String getCommitSha() {
+        return commitSha;
+    }
+
+    public String getTreeSha() {
+        return treeSha;
+    }
+
+    /**
+     * Whether GitHub reported both SHAs. Without them there is nothing to key the README cache on or
+     * to compare a later commit against.
+     */
+    public boolean isResolved() {
+        return commitSha != null && !commitSha.isBlank() && treeSha != null && !treeSha.isBlank();
+    }
+}
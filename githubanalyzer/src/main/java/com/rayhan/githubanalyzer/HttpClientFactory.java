@@ -0,0 +1,126 @@
+package com.rayhan.githubanalyzer;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the Reactor Netty clients for each upstream host. Every named client gets its own connection
+ * pool, so a pile of slow Gemini calls cannot take the connections GitHub fetches need.
+ *
+ * Settings are read per client from http.clients.{name}.*, falling back to http.clients.default.*
+ * and then to the defaults below. Clients for an https base url negotiate HTTP/2 through ALPN with
+ * HTTP/1.1 as fallback (unless http2 is turned off), plain http ones speak HTTP/1.1. Pools publish
+ * Reactor Netty's connection pool metrics and clients their request metrics, tagged with a URI
+ * template so owners, repositories and file paths do not each become a series.
+ */
+@Component
+public class HttpClientFactory {
+
+    // Gemini answers only once the whole generation is done and archives are large, both need longer
+    private static final Map<String, Long> DEFAULT_RESPONSE_TIMEOUTS_MS = Map.of(
+            "gemini", 300000L,
+            "github-archive", 120000L);
+
+    private final Environment environment;
+    private final Map<String, ConnectionProvider> providers = new ConcurrentHashMap<>();
+
+    public HttpClientFactory(Environment environment) {
+        this.environment = environment;
+    }
+
+    public HttpClient httpClient(String name, String baseUrl) {
+        ConnectionProvider provider = providers.computeIfAbsent(name, this::createProvider);
+
+        HttpClient client = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, setting(name, "connect-timeout-ms", 5000, Integer.class))
+                // Longest silence allowed between reads while a response arrives
+                .responseTimeout(Duration.ofMillis(setting(name, "response-timeout-ms",
+                        DEFAULT_RESPONSE_TIMEOUTS_MS.getOrDefault(name, 30000L), Long.class)))
+                .metrics(true, HttpClientFactory::uriTemplate);
+
+        boolean https = baseUrl.regionMatches(true, 0, "https:", 0, "https:".length());
+        if (https && setting(name, "http2", true, Boolean.class)) {
+            client = client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        } else {
+            client = client.protocol(HttpProtocol.HTTP11);
+        }
+        return client;
+    }
+
+    /**
+     * Points the builder at the named client's connection pool, for requests to baseUrl.
+     */
+    public WebClient.Builder configure(String name, String baseUrl, WebClient.Builder builder) {
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient(name, baseUrl)));
+    }
+
+    /**
+     * The request URI as a metrics tag: GitHub API paths keep their route with owner, repository and
+     * user as placeholders, Gemini's {model}:{method} paths are kept since the model is configured,
+     * and anything else (raw file downloads, archive redirects) is reported as "/".
+     */
+    static String uriTemplate(String uri) {
+        String path = uri;
+        int scheme = path.indexOf("://");
+        if (scheme >= 0) {
+            int slash = path.indexOf('/', scheme + 3);
+            path = slash >= 0 ? path.substring(slash) : "/";
+        }
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+
+        String[] segments = Arrays.stream(path.split("/")).filter(segment -> !segment.isEmpty()).toArray(String[]::new);
+        if (segments.length == 0) {
+            return "/";
+        }
+        if (segments[0].equals("repos") && segments.length >= 3) {
+            return "/repos/{owner}/{repo}" + (segments.length > 3 ? "/" + segments[3] : "");
+        }
+        if (segments[0].equals("users") && segments.length >= 2) {
+            return "/users/{user}" + (segments.length > 2 ? "/" + segments[2] : "");
+        }
+        if (segments[segments.length - 1].contains(":")) {
+            return "/" + String.join("/", segments);
+        }
+        return "/";
+    }
+
+    @PreDestroy
+    public void close() {
+        providers.values().forEach(ConnectionProvider::dispose);
+    }
+
+    private ConnectionProvider createProvider(String name) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(setting(name, "max-connections", 50, Integer.class))
+                .pendingAcquireMaxCount(setting(name, "pending-acquire-max-count", 500, Integer.class))
+                .pendingAcquireTimeout(Duration.ofMillis(setting(name, "pending-acquire-timeout-ms", 10000L, Long.class)))
+                .maxIdleTime(Duration.ofMillis(setting(name, "max-idle-time-ms", 30000L, Long.class)))
+                .maxLifeTime(Duration.ofMillis(setting(name, "max-life-time-ms", 300000L, Long.class)))
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    private <T> T setting(String name, String key, T fallback, Class<T> type) {
+        T value = environment.getProperty("http.clients." + name + "." + key, type);
+        if (value != null) {
+            return value;
+        }
+        return environment.getProperty("http.clients.default." + key, type, fallback);
+    }
+}
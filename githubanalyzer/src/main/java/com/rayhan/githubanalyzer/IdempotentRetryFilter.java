@@ -0,0 +1,71 @@
+package com.rayhan.githubanalyzer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Retries idempotent requests that failed on the network, timed out or got a 502, 503 or 504, with
+ * exponential backoff and jitter so a burst of failures does not come back all at once. Other
+ * methods are never retried.
+ */
+@Component
+public class IdempotentRetryFilter implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotentRetryFilter.class);
+
+    private static final Set<HttpMethod> IDEMPOTENT = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+    private static final Set<Integer> RETRYABLE_STATUS = Set.of(502, 503, 504);
+
+    @Value("${http.retry.max-attempts:2}")
+    private int maxAttempts;
+
+    @Value("${http.retry.min-backoff-ms:200}")
+    private long minBackoffMs;
+
+    @Value("${http.retry.max-backoff-ms:5000}")
+    private long maxBackoffMs;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!IDEMPOTENT.contains(request.method())) {
+            return next.exchange(request);
+        }
+
+        return Mono.defer(() -> next.exchange(request))
+                .flatMap(response -> RETRYABLE_STATUS.contains(response.statusCode().value())
+                        ? response.releaseBody().then(Mono.<ClientResponse>error(new RetryableStatusException(request.url(), response.statusCode().value())))
+                        : Mono.just(response))
+                .retryWhen(Retry.backoff(maxAttempts, Duration.ofMillis(minBackoffMs))
+                        .maxBackoff(Duration.ofMillis(maxBackoffMs))
+                        .jitter(0.5)
+                        .filter(this::isRetryable)
+                        .doBeforeRetry(signal -> log.warn("Retrying {} {} after {} (attempt {})", request.method(), request.url(),
+                                signal.failure().getMessage(), signal.totalRetries() + 1))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    // Connection failures, resets and timeouts before a response all surface as WebClientRequestException
+    private boolean isRetryable(Throwable e) {
+        return e instanceof RetryableStatusException || e instanceof WebClientRequestException;
+    }
+
+    private static final class RetryableStatusException extends RuntimeException {
+        RetryableStatusException(URI url, int status) {
+            super("HTTP " + status + " from " + url);
+        }
+    }
+}
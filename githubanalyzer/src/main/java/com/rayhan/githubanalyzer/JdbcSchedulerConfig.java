@@ -0,0 +1,25 @@
+package com.rayhan.githubanalyzer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Scheduler for the blocking JPA/JDBC calls made from reactive code.
+ *
+ * It has as many threads as the connection pool has connections, so a thread never waits on the pool,
+ * and a bounded task queue: once db.scheduler.queue-size calls are waiting, new ones fail fast with a
+ * RejectedExecutionException instead of piling up behind a slow database.
+ */
+@Configuration
+public class JdbcSchedulerConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${db.scheduler.queue-size:1000}") int queueSize) {
+        return Schedulers.newBoundedElastic(poolSize, queueSize, "jdbc");
+    }
+}
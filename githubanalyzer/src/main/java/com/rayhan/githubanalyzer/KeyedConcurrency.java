@@ -0,0 +1,121 @@
+package com.rayhan.githubanalyzer;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Maps tasks grouped by key with two separate limits: at most maxConcurrency run at once overall
+ * and at most maxPerKey of them for the same key.
+ *
+ * Whenever a task finishes, waiting tasks start in key order, skipping keys already at their cap, so
+ * one key with many tasks never leaves overall slots idle while other keys are waiting. Tasks of the
+ * same key start in the order given. Results are emitted as they complete; an error from any task
+ * cancels the rest.
+ */
+public final class KeyedConcurrency {
+
+    private KeyedConcurrency() {
+    }
+
+    public static <K, T, R> Flux<R> flatMap(Map<K, ? extends Collection<T>> tasksByKey, BiFunction<K, T, Mono<R>> mapper,
+                                            int maxConcurrency, int maxPerKey) {
+        return Flux.create(sink -> new Dispatcher<>(tasksByKey, mapper, Math.max(1, maxConcurrency), Math.max(1, maxPerKey), sink)
+                .dispatch());
+    }
+
+    private static final class Dispatcher<K, T, R> {
+
+        private final BiFunction<K, T, Mono<R>> mapper;
+        private final int maxConcurrency;
+        private final int maxPerKey;
+        private final FluxSink<R> sink;
+
+        // Tasks not started yet and the running counts, all guarded by this
+        private final Map<K, Deque<T>> waiting = new LinkedHashMap<>();
+        private final Map<K, Integer> running = new HashMap<>();
+        private int total;
+        private boolean completed;
+
+        private final Disposable.Composite inFlight = Disposables.composite();
+        // Dispatch requests from completions that arrive while dispatching, so synchronous tasks do not recurse
+        private final AtomicInteger pending = new AtomicInteger();
+
+        Dispatcher(Map<K, ? extends Collection<T>> tasksByKey, BiFunction<K, T, Mono<R>> mapper,
+                   int maxConcurrency, int maxPerKey, FluxSink<R> sink) {
+            this.mapper = mapper;
+            this.maxConcurrency = maxConcurrency;
+            this.maxPerKey = maxPerKey;
+            this.sink = sink;
+            tasksByKey.forEach((key, tasks) -> {
+                if (!tasks.isEmpty()) {
+                    waiting.put(key, new ArrayDeque<>(tasks));
+                }
+            });
+            sink.onDispose(inFlight);
+        }
+
+        void dispatch() {
+            if (pending.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                startWaiting();
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void startWaiting() {
+            List<Map.Entry<K, T>> started = new ArrayList<>();
+            boolean complete;
+            synchronized (this) {
+                Iterator<Map.Entry<K, Deque<T>>> keys = waiting.entrySet().iterator();
+                while (total < maxConcurrency && keys.hasNext()) {
+                    Map.Entry<K, Deque<T>> key = keys.next();
+                    int active = running.getOrDefault(key.getKey(), 0);
+                    while (active < maxPerKey && total < maxConcurrency && !key.getValue().isEmpty()) {
+                        started.add(Map.entry(key.getKey(), key.getValue().poll()));
+                        active++;
+                        total++;
+                    }
+                    if (active > 0) {
+                        running.put(key.getKey(), active);
+                    }
+                    if (key.getValue().isEmpty()) {
+                        keys.remove();
+                    }
+                }
+                complete = waiting.isEmpty() && total == 0 && !completed;
+                completed |= complete;
+            }
+
+            if (complete) {
+                sink.complete();
+            }
+            started.forEach(task -> start(task.getKey(), task.getValue()));
+        }
+
+        private void start(K key, T task) {
+            if (sink.isCancelled()) {
+                return;
+            }
+            inFlight.add(Mono.defer(() -> mapper.apply(key, task))
+                    .subscribe(sink::next, sink::error, () -> {
+                        release(key);
+                        dispatch();
+                    }));
+        }
+
+        private synchronized void release(K key) {
+            total--;
+            running.computeIfPresent(key, (k, active) -> active > 1 ? active - 1 : null);
+        }
+    }
+}
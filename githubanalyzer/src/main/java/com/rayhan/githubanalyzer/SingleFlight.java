@@ -0,0 +1,109 @@
+package com.rayhan.githubanalyzer;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key onto one upstream Mono.
+ *
+ * The first caller for a key subscribes to the upstream and its outcome is replayed to every caller
+ * that finds the key, including ones arriving between the value and the key being released, so a
+ * joiner never sees an empty result or starts a second request. The callers are counted: one caller
+ * cancelling leaves the upstream running for the others, and once every caller has cancelled the
+ * upstream is cancelled and the key released, so an abandoned crawl or Gemini call stops spending
+ * rate limit and quota. The key is also released as soon as the upstream terminates, so later calls
+ * start a fresh request.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight> inFlight = new ConcurrentHashMap<>();
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> upstream) {
+        return Mono.defer(() -> {
+            while (true) {
+                Flight flight = inFlight.computeIfAbsent(key, k -> new Flight(k, upstream));
+                Mono<V> joined = flight.join();
+                if (joined != null) {
+                    return joined;
+                }
+                // Every caller of this flight cancelled while we were looking it up, start a new one
+                inFlight.remove(key, flight);
+            }
+        });
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+
+    private final class Flight {
+
+        private final K key;
+        private final Mono<V> shared;
+
+        private int subscribers;
+        private boolean terminated;
+        private boolean cancelled;
+        private Subscription subscription;
+
+        private Flight(K key, Supplier<Mono<V>> upstream) {
+            this.key = key;
+            this.shared = upstream.get()
+                    .doOnSubscribe(this::subscribed)
+                    .doFinally(signal -> release())
+                    .cache();
+        }
+
+        /**
+         * Counts a new caller and returns its view of the result, or null when the flight was
+         * already cancelled and the caller has to start a new one.
+         */
+        private Mono<V> join() {
+            synchronized (this) {
+                if (cancelled) {
+                    return null;
+                }
+                subscribers++;
+            }
+            return shared.doOnCancel(this::leave);
+        }
+
+        private void subscribed(Subscription upstreamSubscription) {
+            synchronized (this) {
+                if (!cancelled) {
+                    subscription = upstreamSubscription;
+                    return;
+                }
+            }
+            // Every caller left while the upstream was being subscribed
+            upstreamSubscription.cancel();
+        }
+
+        private void release() {
+            synchronized (this) {
+                terminated = true;
+            }
+            inFlight.remove(key, this);
+        }
+
+        private void leave() {
+            Subscription toCancel;
+            synchronized (this) {
+                subscribers--;
+                if (subscribers > 0 || terminated) {
+                    return;
+                }
+                cancelled = true;
+                toCancel = subscription;
+            }
+            // cache() never cancels its source, so the last caller leaving cancels it here
+            inFlight.remove(key, this);
+            if (toCancel != null) {
+                toCancel.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.rayhan.githubanalyzer.UserRepo;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "generated_readmes",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"owner", "repo", "tree_sha", "template_hash", "model_id"}))
+public class GeneratedReadMe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String owner;
+    private String repo;
+
+    @Column(name = "tree_sha")
+    private String treeSha;
+
+    // Commit the README was generated from, null for profile READMEs
+    @Column(name = "commit_sha")
+    private String commitSha;
+
+    // Incremental updates applied since the last full generation, 0 for a full one
+    @Column(name = "incremental_updates")
+    private int incrementalUpdates;
+
+    @Column(name = "template_hash")
+    private String templateHash;
+
+    @Column(name = "model_id")
+    private String modelId;
+
+    @Column(columnDefinition = "text")
+    private String content;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getRepo() {
+        return repo;
+    }
+
+    public void setRepo(String repo) {
+        this.repo = repo;
+    }
+
+    public String getTreeSha() {
+        return treeSha;
+    }
+
+    public void setTreeSha(String treeSha) {
+        this.treeSha = treeSha;
+    }
+
+    public String getCommitSha() {
+        return commitSha;
+    }
+
+    public void setCommitSha(String commitSha) {
+        this.commitSha = commitSha;
+    }
+
+    public int getIncrementalUpdates() {
+        return incrementalUpdates;
+    }
+
+    public void setIncrementalUpdates(int incrementalUpdates) {
+        this.incrementalUpdates = incrementalUpdates;
+    }
+
+    public String getTemplateHash() {
+        return templateHash;
+    }
+
+    public void setTemplateHash(String templateHash) {
+        this.templateHash = templateHash;
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+
+    public void setModelId(String modelId) {
+        this.modelId = modelId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
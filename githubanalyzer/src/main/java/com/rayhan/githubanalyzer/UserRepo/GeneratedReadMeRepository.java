@@ -0,0 +1,30 @@
+package com.rayhan.githubanalyzer.UserRepo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface GeneratedReadMeRepository extends JpaRepository<GeneratedReadMe, Long> {
+
+    Optional<GeneratedReadMe> findFirstByOwnerAndRepoAndTreeShaAndTemplateHashAndModelId(
+            String owner, String repo, String treeSha, String templateHash, String modelId);
+
+    Optional<GeneratedReadMe> findFirstByOwnerAndRepoAndTemplateHashAndModelIdAndCommitShaIsNotNullOrderByCreatedAtDesc(
+            String owner, String repo, String templateHash, String modelId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from GeneratedReadMe r where r.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM generated_readmes WHERE id NOT IN " +
+            "(SELECT id FROM generated_readmes ORDER BY created_at DESC LIMIT :maxRows)", nativeQuery = true)
+    int deleteAllButNewest(@Param("maxRows") int maxRows);
+}
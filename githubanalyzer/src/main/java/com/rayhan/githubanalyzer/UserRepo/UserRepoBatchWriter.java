@@ -0,0 +1,51 @@
+package com.rayhan.githubanalyzer.UserRepo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Upserts saved repositories with batched JDBC statements. JpaRepository.save needs a SELECT per row
+ * because UserRepo ids are assigned from GitHub; INSERT ... ON CONFLICT lets Postgres decide instead,
+ * and the rows are sent userrepo.batch-size at a time in a single transaction.
+ */
+@Repository
+public class UserRepoBatchWriter {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_repos (id, username, name, language, description) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET username = EXCLUDED.username, name = EXCLUDED.name, " +
+            "language = EXCLUDED.language, description = EXCLUDED.description";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${userrepo.batch-size:100}")
+    private int batchSize;
+
+    public UserRepoBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public int upsert(List<UserRepo> repos) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, repos, batchSize, (statement, repo) -> {
+            statement.setLong(1, repo.getId());
+            statement.setString(2, repo.getUsername());
+            statement.setString(3, repo.getName());
+            statement.setString(4, repo.getLanguage());
+            statement.setString(5, repo.getDescription());
+        });
+
+        int upserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // The driver may report SUCCESS_NO_INFO (-2) instead of a row count
+                upserted += count < 0 ? 1 : count;
+            }
+        }
+        return upserted;
+    }
+}
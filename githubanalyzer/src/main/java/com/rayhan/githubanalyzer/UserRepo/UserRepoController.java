@@ -1,12 +1,11 @@
 package com.rayhan.githubanalyzer.UserRepo;
 
-import jakarta.transaction.Transactional;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/github/usersavedrepos")
@@ -20,21 +19,59 @@ public class UserRepoController {
     }
 
     @PostMapping("/save")
-    public ResponseEntity<UserRepo> addRepo(@RequestBody UserRepo userRepo) {
-        return ResponseEntity.ok(userRepoService.saveRepo(userRepo));
+    public Mono<ResponseEntity<UserRepo>> addRepo(@RequestBody UserRepo userRepo) {
+        return userRepoService.saveRepo(userRepo)
+                .map(ResponseEntity::ok);
     }
 
+    /**
+     * Saves many repositories at once, updating the ones that are already saved.
+     */
+    @PostMapping("/save/bulk")
+    public Mono<ResponseEntity<Object>> addRepos(@RequestBody List<UserRepo> userRepos) {
+        return toBulkResponse(userRepoService.saveRepos(userRepos));
+    }
+
+    /**
+     * Saves all public repositories of a GitHub owner, fetched from the GitHub API.
+     */
+    @PostMapping("/import/{owner}")
+    public Mono<ResponseEntity<Object>> importRepos(@PathVariable String owner) {
+        return toBulkResponse(userRepoService.importRepos(owner));
+    }
+
+    /**
+     * Lists the saved repositories of a user. Without after or limit the full entities are returned
+     * as one list; with either of them the response is a page of summaries plus a next cursor.
+     */
     @GetMapping
-    public ResponseEntity<List<UserRepo>> getSavedRepos(@RequestParam String username) {
-        List<UserRepo> repos = userRepoService.getRepoByUsername(username);
-        return ResponseEntity.ok(repos != null ? repos : new ArrayList<>());
+    public Mono<ResponseEntity<Object>> getSavedRepos(
+            @RequestParam String username,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+
+        if (after == null && limit == null) {
+            return userRepoService.getRepoByUsername(username)
+                    .collectList()
+                    .map(repos -> ResponseEntity.ok().<Object>body(repos));
+        }
+
+        return userRepoService.getRepoPage(username, after, limit != null ? limit : 100)
+                .map(page -> ResponseEntity.ok().<Object>body(page))
+                .onErrorResume(IllegalArgumentException.class, e ->
+                        Mono.just(ResponseEntity.badRequest().<Object>body(e.getMessage())));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteRepo(@PathVariable Long id) {
-        userRepoService.deleteRepo(id);
-        return ResponseEntity.ok("Repository deleted successfully.");
+    public Mono<ResponseEntity<String>> deleteRepo(@PathVariable Long id) {
+        return userRepoService.deleteRepo(id)
+                .thenReturn(ResponseEntity.ok("Repository deleted successfully."));
     }
 
-
+    private Mono<ResponseEntity<Object>> toBulkResponse(Mono<Integer> saved) {
+        return saved
+                .map(count -> ResponseEntity.ok().<Object>body(Map.of("saved", count)))
+                .onErrorResume(IllegalArgumentException.class, e ->
+                        Mono.just(ResponseEntity.badRequest().<Object>body(e.getMessage())));
+    }
 }
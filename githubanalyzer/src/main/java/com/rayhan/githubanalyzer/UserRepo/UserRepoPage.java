@@ -0,0 +1,9 @@
+package com.rayhan.githubanalyzer.UserRepo;
+
+import java.util.List;
+
+/**
+ * One page of saved repositories. next is the cursor for the following page, or null on the last one.
+ */
+public record UserRepoPage(List<UserRepoSummary> items, String next) {
+}
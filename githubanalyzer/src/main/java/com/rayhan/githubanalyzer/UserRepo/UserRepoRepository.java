@@ -1,9 +1,22 @@
 package com.rayhan.githubanalyzer.UserRepo;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface UserRepoRepository extends JpaRepository<UserRepo, Long> {
     List<UserRepo> findByUsername(String username);
+
+    // First page of the keyset listing, served by idx_user_repos_username_name_id
+    List<UserRepoSummary> findByUsernameOrderByNameAscIdAsc(String username, Limit limit);
+
+    // Next page after (name, id); the row comparison lets Postgres seek straight into the index
+    @Query(value = "SELECT id, username, name, language FROM user_repos " +
+            "WHERE username = :username AND (name, id) > (:name, :id) " +
+            "ORDER BY name, id LIMIT :limit", nativeQuery = true)
+    List<UserRepoSummary> findPageAfter(@Param("username") String username, @Param("name") String name,
+                                        @Param("id") long id, @Param("limit") int limit);
 }
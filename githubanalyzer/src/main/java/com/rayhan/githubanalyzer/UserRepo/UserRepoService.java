@@ -1,32 +1,147 @@
 package com.rayhan.githubanalyzer.UserRepo;
 
+import com.rayhan.githubanalyzer.Github.Github;
+import com.rayhan.githubanalyzer.Github.GithubService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Saved repositories, exposed reactively. The JPA calls run on the bounded jdbcScheduler so callers
+ * on a request or event-loop thread never block on the database.
+ */
 @Service
 public class UserRepoService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserRepoService.class);
+
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepoRepository userRepoRepository;
+    private final UserRepoBatchWriter batchWriter;
+    private final GithubService githubService;
+    private final Scheduler jdbcScheduler;
 
-    public UserRepoService(UserRepoRepository userRepoRepository) {
+    public UserRepoService(UserRepoRepository userRepoRepository, UserRepoBatchWriter batchWriter,
+                           GithubService githubService, Scheduler jdbcScheduler) {
         this.userRepoRepository = userRepoRepository;
+        this.batchWriter = batchWriter;
+        this.githubService = githubService;
+        this.jdbcScheduler = jdbcScheduler;
     }
 
-    public UserRepo saveRepo(UserRepo repo) {
-        return userRepoRepository.save(repo);
+    public Mono<UserRepo> saveRepo(UserRepo repo) {
+        return Mono.fromCallable(() -> userRepoRepository.save(repo))
+                .subscribeOn(jdbcScheduler);
     }
 
-    public List<UserRepo> getRepoByUsername(String username) {
-        List<UserRepo> repos = userRepoRepository.findByUsername(username);
-        return repos != null ? repos : new ArrayList<>();
+    /**
+     * Inserts or updates all the repositories in one transaction. Returns the number of rows written.
+     */
+    public Mono<Integer> saveRepos(List<UserRepo> repos) {
+        return Mono.fromCallable(() -> {
+                    // Later entries win when the same id is sent twice
+                    Map<Long, UserRepo> byId = new LinkedHashMap<>();
+                    for (UserRepo repo : repos) {
+                        if (repo.getId() == null) {
+                            throw new IllegalArgumentException("Every repository needs an id.");
+                        }
+                        byId.put(repo.getId(), repo);
+                    }
+                    if (byId.isEmpty()) {
+                        return 0;
+                    }
+
+                    long start = System.nanoTime();
+                    int saved = batchWriter.upsert(List.copyOf(byId.values()));
+                    long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                    log.info("Upserted {} saved repositories in {} ms ({} rows/s)", saved, millis, saved * 1000L / millis);
+                    return saved;
+                })
+                .subscribeOn(jdbcScheduler);
     }
 
-    public void deleteRepo(Long id) {
-        userRepoRepository.deleteById(id);
+    /**
+     * Saves every public repository of the GitHub owner.
+     */
+    public Mono<Integer> importRepos(String owner) {
+        return githubService.getAllReposPagination(owner)
+                .map(repos -> repos.stream().map(repo -> toUserRepo(owner, repo)).toList())
+                .flatMap(this::saveRepos);
     }
 
+    public Flux<UserRepo> getRepoByUsername(String username) {
+        return Mono.fromCallable(() -> userRepoRepository.findByUsername(username))
+                .subscribeOn(jdbcScheduler)
+                .flatMapIterable(repos -> repos);
+    }
 
+    /**
+     * Keyset-paginated listing ordered by name, as summaries without descriptions. after is the next
+     * cursor of the previous page, or null for the first page.
+     */
+    public Mono<UserRepoPage> getRepoPage(String username, String after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return Mono.fromCallable(() -> {
+                    // One extra row tells whether there is a next page
+                    List<UserRepoSummary> rows;
+                    if (after == null || after.isBlank()) {
+                        rows = userRepoRepository.findByUsernameOrderByNameAscIdAsc(username, Limit.of(size + 1));
+                    } else {
+                        Cursor cursor = Cursor.decode(after);
+                        rows = userRepoRepository.findPageAfter(username, cursor.name(), cursor.id(), size + 1);
+                    }
 
+                    if (rows.size() <= size) {
+                        return new UserRepoPage(rows, null);
+                    }
+                    List<UserRepoSummary> items = rows.subList(0, size);
+                    UserRepoSummary last = items.get(size - 1);
+                    return new UserRepoPage(List.copyOf(items), new Cursor(last.getName(), last.getId()).encode());
+                })
+                .subscribeOn(jdbcScheduler);
+    }
+
+    public Mono<Void> deleteRepo(Long id) {
+        return Mono.<Void>fromRunnable(() -> userRepoRepository.deleteById(id))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    private UserRepo toUserRepo(String owner, Github github) {
+        UserRepo repo = new UserRepo();
+        repo.setId((long) github.getId());
+        repo.setUsername(owner);
+        repo.setName(github.getName());
+        repo.setLanguage(github.getLanguage());
+        repo.setDescription(github.getDescription());
+        return repo;
+    }
+
+    record Cursor(String name, long id) {
+
+        String encode() {
+            String raw = id + ":" + name;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new Cursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+            }
+        }
+    }
 }
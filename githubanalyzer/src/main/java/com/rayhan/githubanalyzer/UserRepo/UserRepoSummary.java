@@ -0,0 +1,15 @@
+package com.rayhan.githubanalyzer.UserRepo;
+
+/**
+ * List view of a saved repository, without the description.
+ */
+public interface UserRepoSummary {
+
+    Long getId();
+
+    String getUsername();
+
+    String getName();
+
+    String getLanguage();
+}
@@ -0,0 +1,11 @@
+-- user_repos was created by Hibernate before migrations were introduced; create it on fresh databases
+CREATE TABLE IF NOT EXISTS user_repos (
+    id          BIGINT PRIMARY KEY,
+    username    VARCHAR(255),
+    name        VARCHAR(255),
+    language    VARCHAR(255),
+    description VARCHAR(255)
+);
+
+-- Serves the saved-repo listing by username and its keyset pagination on (name, id)
+CREATE INDEX IF NOT EXISTS idx_user_repos_username_name_id ON user_repos (username, name, id);
@@ -0,0 +1,12 @@
+-- Generated READMEs keyed by tree SHA and prompt template; Hibernate created this table before migrations were introduced
+CREATE TABLE IF NOT EXISTS generated_readmes (
+    id            BIGSERIAL PRIMARY KEY,
+    owner         VARCHAR(255),
+    repo          VARCHAR(255),
+    tree_sha      VARCHAR(255),
+    template_hash VARCHAR(255),
+    model_id      VARCHAR(255),
+    content       TEXT,
+    created_at    TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_generated_readmes_key UNIQUE (owner, repo, tree_sha, template_hash, model_id)
+);
@@ -0,0 +1,21 @@
+-- Background README analyses, queued and running jobs are picked up again on startup
+CREATE TABLE IF NOT EXISTS analysis_jobs (
+    id          VARCHAR(255) PRIMARY KEY,
+    type        VARCHAR(255),
+    requester   VARCHAR(255),
+    owner       VARCHAR(255),
+    repo        VARCHAR(255),
+    mode        VARCHAR(255),
+    status      VARCHAR(255),
+    result      TEXT,
+    error       TEXT,
+    created_at  TIMESTAMP(6) WITH TIME ZONE,
+    started_at  TIMESTAMP(6) WITH TIME ZONE,
+    finished_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+-- Serves the startup recovery of unfinished jobs in submission order
+CREATE INDEX IF NOT EXISTS idx_analysis_jobs_status_created_at ON analysis_jobs (status, created_at);
+
+-- Serves the eviction of finished jobs past the retention period
+CREATE INDEX IF NOT EXISTS idx_analysis_jobs_finished_at ON analysis_jobs (finished_at);
@@ -0,0 +1,6 @@
+-- Commit each README was generated from, the base for incremental re-analysis
+ALTER TABLE generated_readmes ADD COLUMN IF NOT EXISTS commit_sha VARCHAR(40);
+
+-- Serves the lookup of a repository's latest README
+CREATE INDEX IF NOT EXISTS idx_generated_readmes_latest
+    ON generated_readmes (owner, repo, template_hash, model_id, created_at DESC);
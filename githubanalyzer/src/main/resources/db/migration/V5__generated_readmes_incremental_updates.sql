@@ -0,0 +1,2 @@
+-- Incremental updates a README is chained on since its last full generation, 0 for a full one
+ALTER TABLE generated_readmes ADD COLUMN IF NOT EXISTS incremental_updates INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,80 @@
+package com.rayhan.githubanalyzer.AnalysisJob;
+
+import com.rayhan.githubanalyzer.CreateReadMe.ReadMeAnalysisService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AnalysisJobServiceTest {
+
+    private final AnalysisJobRepository repository = mock(AnalysisJobRepository.class);
+    private final AnalysisJobService service = new AnalysisJobService(repository, mock(ReadMeAnalysisService.class),
+            Schedulers.boundedElastic());
+
+    @Test
+    void submissionsStillBeingSavedCountTowardsTheQueueLimit() throws InterruptedException {
+        // No workers, so submitted jobs stay queued
+        ReflectionTestUtils.setField(service, "workers", 0);
+        ReflectionTestUtils.setField(service, "maxQueuedPerUser", 2);
+
+        CountDownLatch saving = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.save(any(AnalysisJob.class))).thenAnswer(invocation -> {
+            saving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+
+        List<AnalysisJob> accepted = new CopyOnWriteArrayList<>();
+        List<Throwable> rejected = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            service.submitProfile("octocat", "default").subscribe(accepted::add, rejected::add);
+        }
+        // Both submissions hold a queue slot while their save is blocked
+        assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 3; i++) {
+            service.submitProfile("octocat", "default").subscribe(accepted::add, rejected::add);
+        }
+        service.submitProfile("hubot", "default").subscribe(accepted::add, rejected::add);
+        release.countDown();
+
+        awaitSettled(accepted, rejected, 6);
+        assertThat(accepted).extracting(AnalysisJob::getRequester).containsExactlyInAnyOrder("octocat", "octocat", "hubot");
+        assertThat(rejected).hasSize(3).allSatisfy(e -> assertThat(e).isInstanceOf(IllegalStateException.class));
+        verify(repository, times(3)).save(any(AnalysisJob.class));
+    }
+
+    @Test
+    void failedSaveGivesTheQueueSlotBack() {
+        ReflectionTestUtils.setField(service, "workers", 0);
+        ReflectionTestUtils.setField(service, "maxQueuedPerUser", 1);
+        when(repository.save(any(AnalysisJob.class)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Mono<AnalysisJob> first = service.submitProfile("octocat", "default");
+        assertThat(first.onErrorResume(e -> Mono.empty()).block(Duration.ofSeconds(5))).isNull();
+
+        AnalysisJob second = service.submitProfile("octocat", "default").block(Duration.ofSeconds(5));
+        assertThat(second.getStatus()).isEqualTo(AnalysisJob.Status.QUEUED);
+    }
+
+    private static void awaitSettled(List<?> accepted, List<?> rejected, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (accepted.size() + rejected.size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
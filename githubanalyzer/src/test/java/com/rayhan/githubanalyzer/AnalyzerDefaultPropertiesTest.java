@@ -0,0 +1,70 @@
+package com.rayhan.githubanalyzer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultPropertiesPropertySource;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyzerDefaultPropertiesTest {
+
+    private final StandardEnvironment environment = new StandardEnvironment();
+
+    @Test
+    void enablesAutomaticContextPropagation() {
+        postProcess();
+
+        assertThat(environment.getProperty("spring.reactor.context-propagation")).isEqualTo("auto");
+        assertThat(environment.getProperty("management.endpoints.web.exposure.include")).isEqualTo("health,info,metrics,prometheus");
+    }
+
+    @Test
+    void compressesTheNdjsonStreams() {
+        postProcess();
+
+        assertThat(environment.getProperty("server.compression.enabled")).isEqualTo("true");
+        assertThat(environment.getProperty("server.compression.mime-types")).contains("application/x-ndjson");
+    }
+
+    @Test
+    void keepsDefaultsTheLauncherAlreadySet() {
+        environment.getPropertySources().addLast(new DefaultPropertiesPropertySource(new HashMap<>(Map.of(
+                "management.endpoints.web.exposure.include", "health,metrics",
+                "server.port", "0"))));
+
+        postProcess();
+
+        assertThat(environment.getProperty("management.endpoints.web.exposure.include")).isEqualTo("health,metrics");
+        assertThat(environment.getProperty("server.port")).isEqualTo("0");
+        assertThat(environment.getProperty("spring.reactor.context-propagation")).isEqualTo("auto");
+    }
+
+    @Test
+    void yieldsToConfiguredProperties() {
+        environment.getPropertySources().addFirst(new MapPropertySource("application",
+                Map.of("management.tracing.sampling.probability", "1.0")));
+
+        postProcess();
+
+        assertThat(environment.getProperty("management.tracing.sampling.probability")).isEqualTo("1.0");
+    }
+
+    @Test
+    void isRegisteredWithSpringBoot() {
+        // Boot's own post-processors need constructor arguments, skip them
+        assertThat(SpringFactoriesLoader.forDefaultResourceLocation()
+                .load(EnvironmentPostProcessor.class, SpringFactoriesLoader.FailureHandler.handleMessage((message, failure) -> { })))
+                .hasAtLeastOneElementOfType(AnalyzerDefaultProperties.class);
+    }
+
+    private void postProcess() {
+        new AnalyzerDefaultProperties().postProcessEnvironment(environment, new SpringApplication());
+    }
+}
@@ -0,0 +1,169 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import com.rayhan.githubanalyzer.Github.BlobCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentNormalizerTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<String> applied = new ArrayList<>();
+    private BlobCache blobCache;
+
+    @AfterEach
+    void closeCache() {
+        if (blobCache != null) {
+            blobCache.close();
+        }
+    }
+
+    @Test
+    void runsTheStagesInOrder() {
+        ContentNormalizer normalizer = normalizer(false, List.of(
+                stage("upper", true, (path, content) -> content.toUpperCase()),
+                stage("trim", true, (path, content) -> content.strip())));
+
+        Map<String, Map<String, String>> result = normalizer.normalize(Map.of("", Map.of("a.txt", "  hello  ")));
+
+        assertThat(result.get("")).containsExactly(Map.entry("a.txt", "HELLO"));
+        assertThat(applied).containsExactly("upper a.txt", "trim a.txt");
+    }
+
+    @Test
+    void leavesOutFilesAStageDrops() {
+        ContentNormalizer normalizer = normalizer(false, List.of(
+                stage("vendored", false, (path, content) -> path.startsWith("vendor/") ? null : content)));
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("vendor/lib.js", "lib");
+        files.put("src/app.js", "app");
+
+        Map<String, Map<String, String>> result = normalizer.normalize(Map.of("", files));
+
+        assertThat(result.get("")).containsOnlyKeys("src/app.js");
+        assertThat(normalizer.getStats()).containsEntry("vendored", Map.of("bytesSaved", 3L, "filesDropped", 1L));
+    }
+
+    @Test
+    void reusesCachedOutputOfCacheableStagesOnly() {
+        ContentNormalizer normalizer = normalizer(true, List.of(
+                stage("path-dependent", false, (path, content) -> content),
+                stage("cacheable", true, (path, content) -> content.strip())));
+
+        normalizer.normalize(Map.of("", Map.of("a/Main.java", " class Main {} ")));
+        applied.clear();
+        Map<String, Map<String, String>> again = normalizer.normalize(Map.of("", Map.of("b/Main.java", " class Main {} ")));
+
+        assertThat(again.get("")).containsExactly(Map.entry("b/Main.java", "class Main {}"));
+        assertThat(applied).containsExactly("path-dependent b/Main.java");
+        assertThat(normalizer.getStats()).containsEntry("cacheHits", 1L);
+    }
+
+    @Test
+    void returnsTheInputWhenDisabled() {
+        ContentNormalizer normalizer = normalizer(false, List.of(stage("drop", true, (path, content) -> null)));
+        ReflectionTestUtils.setField(normalizer, "enabled", false);
+        Map<String, Map<String, String>> repos = Map.of("", Map.of("a.txt", "a"));
+
+        assertThat(normalizer.normalize(repos)).isSameAs(repos);
+    }
+
+    @Test
+    void keepsIdenticalFilesOnceWithANoteListingTheCopies() {
+        ContentNormalizer normalizer = normalizer(false, List.of());
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("a/LICENSE.txt", "MIT");
+        files.put("src/Main.java", "class Main {}");
+        files.put("b/LICENSE.txt", "MIT");
+        files.put("c/LICENSE.txt", "MIT");
+
+        Map<String, Map<String, String>> result = normalizer.normalize(Map.of("", files));
+
+        assertThat(result.get("")).containsExactly(
+                Map.entry("a/LICENSE.txt", "[Identical copies of this file: b/LICENSE.txt, c/LICENSE.txt]\nMIT"),
+                Map.entry("src/Main.java", "class Main {}"));
+        assertThat(normalizer.getStats()).containsEntry("duplicate", Map.of("bytesSaved", 6L, "filesDropped", 2L));
+    }
+
+    @Test
+    void keepsTheFirstRepositorysCopyOfFilesSharedAcrossRepositories() {
+        ContentNormalizer normalizer = normalizer(false, List.of());
+        Map<String, Map<String, String>> repos = new LinkedHashMap<>();
+        repos.put("octocat/app", Map.of("util/Strings.java", "class Strings {}", "App.java", "class App {}"));
+        repos.put("octocat/fork", Map.of("util/Strings.java", "class Strings {}"));
+
+        Map<String, Map<String, String>> result = normalizer.normalize(repos);
+
+        assertThat(result.get("octocat/app")).containsEntry("util/Strings.java",
+                "[Identical copies of this file: octocat/fork/util/Strings.java]\nclass Strings {}");
+        assertThat(result.get("octocat/fork")).isEmpty();
+        assertThat(normalizer.getStats()).containsEntry("duplicate-across-repos", Map.of("bytesSaved", 16L, "filesDropped", 1L));
+    }
+
+    @Test
+    void comparesFilesAfterNormalization() {
+        ContentNormalizer normalizer = normalizer(false, List.of(stage("trim", true, (path, content) -> content.strip())));
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("a.py", "print(1)\n");
+        files.put("b.py", "  print(1)");
+
+        Map<String, Map<String, String>> result = normalizer.normalize(Map.of("", files));
+
+        assertThat(result.get("")).containsOnlyKeys("a.py");
+    }
+
+    @Test
+    void listsAtMostTenCopies() {
+        ContentNormalizer normalizer = normalizer(false, List.of());
+        Map<String, String> files = new LinkedHashMap<>();
+        for (int i = 0; i <= 12; i++) {
+            files.put("copy" + i + ".txt", "same");
+        }
+
+        String kept = normalizer.normalize(Map.of("", files)).get("").get("copy0.txt");
+
+        assertThat(kept).startsWith("[Identical copies of this file: copy1.txt, copy2.txt,")
+                .contains("copy10.txt and 2 more]\n")
+                .doesNotContain("copy11.txt");
+    }
+
+    private ContentNormalizer normalizer(boolean cacheEnabled, List<NormalizationStage> stages) {
+        blobCache = new BlobCache(directory.toString(), cacheEnabled, 1 << 20, 1 << 16, new SimpleMeterRegistry());
+        ContentNormalizer normalizer = new ContentNormalizer(stages, blobCache, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(normalizer, "enabled", true);
+        return normalizer;
+    }
+
+    private NormalizationStage stage(String name, boolean cacheable, BinaryOperator<String> apply) {
+        return new NormalizationStage() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public boolean isCacheable() {
+                return cacheable;
+            }
+
+            @Override
+            public String apply(String path, String content) {
+                applied.add(name + " " + path);
+                return apply.apply(path, content);
+            }
+        };
+    }
+}
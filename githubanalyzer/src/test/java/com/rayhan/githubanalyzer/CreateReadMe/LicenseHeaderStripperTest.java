@@ -0,0 +1,87 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LicenseHeaderStripperTest {
+
+    private final LicenseHeaderStripper stripper = new LicenseHeaderStripper();
+
+    @Test
+    void removesALicenseBlockComment() {
+        String source = """
+                /*
+                 * Copyright 2024 Example Corp.
+                 * Licensed under the Apache License, Version 2.0.
+                 */
+
+                package com.example;
+                """;
+
+        assertThat(stripper.apply("src/Main.java", source)).isEqualTo("package com.example;\n");
+    }
+
+    @Test
+    void removesLicenseLineComments() {
+        String source = """
+                // SPDX-License-Identifier: MIT
+                // Copyright (c) Example
+
+                #include <stdio.h>
+                """;
+
+        assertThat(stripper.apply("main.c", source)).isEqualTo("#include <stdio.h>\n");
+    }
+
+    @Test
+    void keepsTheShebangOfAPythonScript() {
+        String source = """
+                #!/usr/bin/env python3
+                # Copyright 2024 Example
+                # All rights reserved.
+
+                print("hi")
+                """;
+
+        assertThat(stripper.apply("tool.py", source)).isEqualTo("#!/usr/bin/env python3\nprint(\"hi\")\n");
+    }
+
+    @Test
+    void keepsOrdinaryDocumentation() {
+        String source = """
+                /**
+                 * Parses the configuration file.
+                 */
+                public class Parser {}
+                """;
+
+        assertThat(stripper.apply("Parser.java", source)).isEqualTo(source);
+    }
+
+    @Test
+    void treatsHashAsACommentOnlyInPython() {
+        String source = "#define LICENSE_KEY 42\nint main() {}\n";
+
+        assertThat(stripper.apply("main.c", source)).isEqualTo(source);
+    }
+
+    @Test
+    void leavesAnUnterminatedCommentAlone() {
+        String source = "/* Copyright 2024 Example\nint x;\n";
+
+        assertThat(stripper.apply("x.c", source)).isEqualTo(source);
+    }
+
+    @Test
+    void onlyLooksAtTheFirstComment() {
+        String source = """
+                package com.example;
+
+                // Licensed under the MIT license
+                class A {}
+                """;
+
+        assertThat(stripper.apply("A.java", source)).isEqualTo(source);
+    }
+}
@@ -0,0 +1,62 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotebookStripperTest {
+
+    private final NotebookStripper stripper = new NotebookStripper();
+
+    @Test
+    void keepsCodeAndMarkdownCellsInPercentFormat() {
+        String notebook = """
+                {
+                  "metadata": {"kernelspec": {"name": "python3"}},
+                  "cells": [
+                    {"cell_type": "markdown", "metadata": {}, "source": ["# Analysis\\n", "Loads the data."]},
+                    {"cell_type": "code", "execution_count": 1, "metadata": {"tags": []},
+                     "source": ["import pandas as pd\\n", "df = pd.read_csv('data.csv')\\n"],
+                     "outputs": [{"output_type": "display_data", "data": {"image/png": "iVBORw0KGgoAAAANSUhEUg=="}}]},
+                    {"cell_type": "code", "source": "df.describe()", "outputs": []}
+                  ],
+                  "nbformat": 4
+                }
+                """;
+
+        assertThat(stripper.apply("notebooks/analysis.ipynb", notebook)).isEqualTo("""
+                # %% [markdown]
+                # Analysis
+                Loads the data.
+
+                # %%
+                import pandas as pd
+                df = pd.read_csv('data.csv')
+
+                # %%
+                df.describe()
+
+                """);
+    }
+
+    @Test
+    void dropsEmptyAndRawCells() {
+        String notebook = """
+                {"cells": [
+                  {"cell_type": "code", "source": ["   \\n"]},
+                  {"cell_type": "raw", "source": ["raw text"]},
+                  {"cell_type": "code", "source": null},
+                  {"cell_type": "code", "source": ["x = 1"]}
+                ]}
+                """;
+
+        assertThat(stripper.apply("a.ipynb", notebook)).isEqualTo("# %%\nx = 1\n\n");
+    }
+
+    @Test
+    void leavesOtherFilesAndInvalidNotebooksAlone() {
+        assertThat(stripper.apply("data.json", "{\"cells\": []}")).isEqualTo("{\"cells\": []}");
+        assertThat(stripper.apply("broken.ipynb", "{\"cells\": [")).isEqualTo("{\"cells\": [");
+        assertThat(stripper.apply("list.ipynb", "[1, 2]")).isEqualTo("[1, 2]");
+    }
+}
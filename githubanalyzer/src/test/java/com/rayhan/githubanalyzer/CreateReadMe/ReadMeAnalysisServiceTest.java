@@ -0,0 +1,119 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import com.rayhan.githubanalyzer.AnalyzerMetrics;
+import com.rayhan.githubanalyzer.Github.ChangedFile;
+import com.rayhan.githubanalyzer.Github.CommitComparison;
+import com.rayhan.githubanalyzer.Github.GithubService;
+import com.rayhan.githubanalyzer.Github.RepoHead;
+import com.rayhan.githubanalyzer.UserRepo.GeneratedReadMe;
+import com.rayhan.githubanalyzer.UserRepo.UserRepoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReadMeAnalysisServiceTest {
+
+    private static final RepoHead HEAD = new RepoHead("main", "2222222222", "tree-2");
+
+    private final GithubService githubService = mock(GithubService.class);
+    private final ReadMeGenerator readMeGenerator = mock(ReadMeGenerator.class);
+    private final ReadMeCacheService readMeCache = mock(ReadMeCacheService.class);
+    private final ReadMeAnalysisService service = new ReadMeAnalysisService(githubService, mock(UserRepoService.class),
+            readMeGenerator, readMeCache, new AnalyzerMetrics(new SimpleMeterRegistry()));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "incrementalEnabled", true);
+        ReflectionTestUtils.setField(service, "incrementalMaxFiles", 40);
+        ReflectionTestUtils.setField(service, "incrementalMaxUpdates", 3);
+
+        when(githubService.getRepoHead("o", "r")).thenReturn(Mono.just(HEAD));
+        when(githubService.compareCommits("o", "r", "1111111111", "2222222222")).thenReturn(Mono.just(oneChangedFile()));
+        when(githubService.getRepoContents("o", "r", "")).thenReturn(Mono.just(Map.of("src/Main.java", "class Main {}")));
+        when(readMeCache.find(eq("o"), eq("r"), eq("tree-2"), anyString())).thenReturn(Mono.empty());
+        when(readMeCache.save(anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), anyInt()))
+                .thenReturn(Mono.empty());
+        when(readMeGenerator.generate(anyString(), anyMap(), any())).thenReturn(Mono.just("full README"));
+        when(readMeGenerator.update(anyString(), anyMap(), anyList())).thenReturn(Mono.just("updated README"));
+    }
+
+    @Test
+    void updatesIncrementallyAndCountsTheUpdate() {
+        previous(1);
+        when(githubService.getChangedContents(eq("o"), eq("r"), eq("2222222222"), anyList()))
+                .thenReturn(Mono.just(Map.of("src/Main.java", "class Main { int x; }")));
+
+        assertThat(analyze()).isEqualTo("updated README");
+        verify(readMeCache).save(eq("o"), eq("r"), eq("tree-2"), eq("2222222222"), anyString(), eq("updated README"), eq(2));
+        verify(readMeGenerator, never()).generate(anyString(), anyMap(), any());
+    }
+
+    @Test
+    void runsAFullAnalysisWhenAChangedFileCannotBeDownloaded() {
+        previous(0);
+        when(githubService.getChangedContents(eq("o"), eq("r"), eq("2222222222"), anyList()))
+                .thenReturn(Mono.error(WebClientResponseException.create(502, "Bad Gateway", null, null, null)));
+
+        assertThat(analyze()).isEqualTo("full README");
+        verify(readMeCache).save(eq("o"), eq("r"), eq("tree-2"), eq("2222222222"), anyString(), eq("full README"), eq(0));
+        verify(readMeGenerator, never()).update(anyString(), anyMap(), anyList());
+    }
+
+    @Test
+    void regeneratesInFullAfterTheMaximumNumberOfIncrementalUpdates() {
+        previous(3);
+
+        assertThat(analyze()).isEqualTo("full README");
+        verify(readMeCache).save(eq("o"), eq("r"), eq("tree-2"), eq("2222222222"), anyString(), eq("full README"), eq(0));
+        verify(githubService, never()).getChangedContents(anyString(), anyString(), anyString(), anyList());
+    }
+
+    @Test
+    void reusesTheReadMeWhenNoAnalyzedFileChangedWithoutCountingAnUpdate() {
+        previous(3);
+        ChangedFile image = new ChangedFile();
+        image.setFilename("docs/logo.png");
+        image.setStatus("modified");
+        CommitComparison comparison = new CommitComparison();
+        comparison.setStatus("ahead");
+        comparison.setFiles(List.of(image));
+        when(githubService.compareCommits("o", "r", "1111111111", "2222222222")).thenReturn(Mono.just(comparison));
+
+        assertThat(analyze()).isEqualTo("previous README");
+        verify(readMeCache).save(eq("o"), eq("r"), eq("tree-2"), eq("2222222222"), anyString(), eq("previous README"), eq(3));
+    }
+
+    private String analyze() {
+        return service.analyzeRepo("o", "r", "single").block(Duration.ofSeconds(5));
+    }
+
+    private void previous(int incrementalUpdates) {
+        GeneratedReadMe previous = new GeneratedReadMe();
+        previous.setCommitSha("1111111111");
+        previous.setContent("previous README");
+        previous.setIncrementalUpdates(incrementalUpdates);
+        when(readMeCache.findLatest(eq("o"), eq("r"), anyString())).thenReturn(Mono.just(previous));
+    }
+
+    private static CommitComparison oneChangedFile() {
+        ChangedFile file = new ChangedFile();
+        file.setFilename("src/Main.java");
+        file.setStatus("modified");
+        file.setSha("abc");
+        CommitComparison comparison = new CommitComparison();
+        comparison.setStatus("ahead");
+        comparison.setFiles(List.of(file));
+        return comparison;
+    }
+}
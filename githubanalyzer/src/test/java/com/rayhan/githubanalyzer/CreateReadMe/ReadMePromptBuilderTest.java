@@ -0,0 +1,115 @@
+package com.rayhan.githubanalyzer.CreateReadMe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadMePromptBuilderTest {
+
+    private final ReadMePromptBuilder builder = new ReadMePromptBuilder(200000);
+
+    @Test
+    void ranksBuildFilesAndEntryPointsFirst() {
+        assertThat(ReadMePromptBuilder.score("pom.xml")).isEqualTo(100);
+        assertThat(ReadMePromptBuilder.score("web/package.json")).isEqualTo(99);
+        assertThat(ReadMePromptBuilder.score("src/main/java/com/example/DemoApplication.java")).isEqualTo(95 - 5);
+        assertThat(ReadMePromptBuilder.score("app/main.py")).isEqualTo(95 - 1);
+        assertThat(ReadMePromptBuilder.score("src/UserController.java")).isEqualTo(80 - 1);
+        assertThat(ReadMePromptBuilder.score("src/UserEntity.java")).isEqualTo(60 - 1);
+        assertThat(ReadMePromptBuilder.score("src/Utils.java")).isEqualTo(50 - 1);
+    }
+
+    @Test
+    void ranksTestsAndGeneratedCodeLast() {
+        assertThat(ReadMePromptBuilder.score("src/UserServiceTest.java")).isEqualTo(20 - 1);
+        assertThat(ReadMePromptBuilder.score("src/UserServiceTests.java")).isEqualTo(20 - 1);
+        assertThat(ReadMePromptBuilder.score("src/UserRepositoryIT.java")).isEqualTo(20 - 1);
+        assertThat(ReadMePromptBuilder.score("src/test/java/Fixtures.java")).isEqualTo(20 - 3);
+        assertThat(ReadMePromptBuilder.score("tests/test_parser.py")).isEqualTo(20 - 1);
+        assertThat(ReadMePromptBuilder.score("web/app.test.js")).isEqualTo(20 - 1);
+        assertThat(ReadMePromptBuilder.score("node_modules/left-pad/index.js")).isEqualTo(5 - 2);
+        assertThat(ReadMePromptBuilder.score("web/dist/app.min.js")).isEqualTo(5 - 2);
+    }
+
+    @Test
+    void doesNotMistakeOrdinarySourcesForTests() {
+        for (String path : new String[]{"src/RateLimit.java", "src/Commit.java", "src/Unit.java", "src/Contest.java",
+                "src/Manifest.java", "src/Latest.java", "src/Audit.java"}) {
+            assertThat(ReadMePromptBuilder.score(path)).as(path).isEqualTo(50 - 1);
+        }
+    }
+
+    @Test
+    void penalizesNotebooksAndDepth() {
+        assertThat(ReadMePromptBuilder.score("analysis.ipynb")).isEqualTo(30);
+        assertThat(ReadMePromptBuilder.score("a/b/c/d/e/f/g/h/i/j/k/l/Utils.java")).isEqualTo(40);
+    }
+
+    @Test
+    void keepsEverythingThatFitsInPathOrder() {
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("src/b/Service.java", "b".repeat(100));
+        files.put("src/a/Controller.java", "a".repeat(100));
+        files.put("src/c/Utils.java", "c".repeat(100));
+
+        List<Map<String, Map<String, String>>> chunks = builder.partition(Map.of("repo", files), 1000, 4);
+
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0).get("repo")).containsOnlyKeys("src/a/Controller.java", "src/b/Service.java", "src/c/Utils.java");
+        assertThat(List.copyOf(chunks.get(0).get("repo").keySet()))
+                .containsExactly("src/a/Controller.java", "src/b/Service.java", "src/c/Utils.java");
+    }
+
+    @Test
+    void truncatesAFileLargerThanAChunk() {
+        List<Map<String, Map<String, String>>> chunks = builder.partition(
+                Map.of("repo", Map.of("src/Big.java", "x".repeat(5000))), 100, 4);
+
+        assertThat(chunks).hasSize(1);
+        String content = chunks.get(0).get("repo").get("src/Big.java");
+        assertThat(content).endsWith("... [truncated] ...\n").hasSizeLessThan(400);
+    }
+
+    @Test
+    void neverProducesMoreThanMaxChunks() {
+        // Each file takes about 0.6 of a chunk, so no two share one and perfect packing overestimates by 40%
+        int chunkTokens = 250;
+        Map<String, String> files = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            files.put(String.format("src/File%03d.java", i), "x".repeat(560));
+        }
+
+        List<Map<String, Map<String, String>>> chunks = builder.partition(Map.of("repo", files), chunkTokens, 32);
+
+        assertThat(chunks).hasSize(32);
+        for (Map<String, Map<String, String>> chunk : chunks) {
+            long chars = chunk.get("repo").entrySet().stream()
+                    .mapToLong(file -> file.getKey().length() + file.getValue().length())
+                    .sum();
+            assertThat(chars).isLessThanOrEqualTo((long) chunkTokens * ReadMePromptBuilder.CHARS_PER_TOKEN);
+        }
+    }
+
+    @Test
+    void leavesOutTheLowestRankedFilesFirst() {
+        Map<String, String> files = new LinkedHashMap<>();
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String source = String.format("src/Feature%02dController.java", i);
+            sources.add(source);
+            files.put(source, "x".repeat(560));
+            files.put(String.format("src/Feature%02dControllerTest.java", i), "x".repeat(560));
+        }
+
+        List<Map<String, Map<String, String>>> chunks = builder.partition(Map.of("repo", files), 250, 10);
+
+        List<String> kept = chunks.stream().flatMap(chunk -> chunk.get("repo").keySet().stream()).toList();
+        assertThat(chunks).hasSize(10);
+        assertThat(kept).containsExactlyInAnyOrderElementsOf(sources);
+    }
+}
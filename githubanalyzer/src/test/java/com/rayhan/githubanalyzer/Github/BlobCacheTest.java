@@ -0,0 +1,198 @@
+package com.rayhan.githubanalyzer.Github;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlobCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<BlobCache> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeCaches() {
+        opened.forEach(BlobCache::close);
+    }
+
+    @Test
+    void returnsWhatWasPut() {
+        BlobCache cache = open(1024 * 1024, 64 * 1024);
+
+        cache.put("a", "class A {}");
+        cache.put("b", "héllo wörld");
+
+        assertThat(cache.get("a")).contains("class A {}");
+        assertThat(cache.get("b")).contains("héllo wörld");
+        assertThat(cache.get("missing")).isEmpty();
+        assertThat(cache.contains("a")).isTrue();
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheFirstContentForASha() {
+        BlobCache cache = open(1024 * 1024, 64 * 1024);
+
+        cache.put("a", "first");
+        cache.put("a", "second");
+
+        assertThat(cache.get("a")).contains("first");
+        assertThat(cache.getStats()).containsEntry("entries", 1);
+    }
+
+    @Test
+    void rollsOverToANewSegmentWhenTheActiveOneIsFull() throws IOException {
+        BlobCache cache = open(1024 * 1024, 256);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("sha" + i, "x".repeat(100));
+        }
+
+        assertThat(cache.getStats()).containsEntry("segments", 5);
+        assertThat(segmentFiles()).hasSize(5);
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.get("sha" + i)).contains("x".repeat(100));
+        }
+    }
+
+    @Test
+    void skipsBlobsLargerThanASegment() {
+        BlobCache cache = open(1024 * 1024, 256);
+
+        cache.put("big", "x".repeat(300));
+
+        assertThat(cache.contains("big")).isFalse();
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedBlobsOverTheLimit() {
+        BlobCache cache = open(300, 4096);
+
+        cache.put("a", "a".repeat(100));
+        cache.put("b", "b".repeat(100));
+        cache.put("c", "c".repeat(100));
+        cache.get("a");
+        cache.put("d", "d".repeat(100));
+
+        assertThat(cache.contains("a")).isTrue();
+        assertThat(cache.contains("b")).isFalse();
+        assertThat(cache.contains("c")).isTrue();
+        assertThat(cache.contains("d")).isTrue();
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.getStats()).containsEntry("liveBytes", 300L);
+    }
+
+    @Test
+    void reportsHitsMissesAndEvictionsAsMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BlobCache cache = new BlobCache(directory.toString(), true, 100, 4096, registry);
+        opened.add(cache);
+
+        cache.put("a", "a".repeat(100));
+        cache.put("b", "b".repeat(100));
+        cache.get("a");
+        cache.get("b");
+
+        assertThat(registry.get("cache.requests").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.requests").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.evictions").tag("cache", "blob").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deletesSegmentsWithoutLiveBlobs() throws IOException {
+        // Two records per segment and room for four live blobs
+        BlobCache cache = open(400, 256);
+
+        for (int i = 0; i < 8; i++) {
+            cache.put("sha" + i, "x".repeat(100));
+        }
+
+        assertThat(cache.contains("sha0")).isFalse();
+        assertThat(cache.contains("sha3")).isFalse();
+        assertThat(cache.contains("sha4")).isTrue();
+        assertThat(cache.contains("sha7")).isTrue();
+        assertThat(segmentFiles()).hasSize(2);
+        assertThat(cache.get("sha5")).contains("x".repeat(100));
+    }
+
+    @Test
+    void rebuildsTheIndexOnRestart() {
+        BlobCache cache = open(1024 * 1024, 256);
+        for (int i = 0; i < 5; i++) {
+            cache.put("sha" + i, "content " + i);
+        }
+        cache.close();
+
+        BlobCache reopened = open(1024 * 1024, 256);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(reopened.get("sha" + i)).contains("content " + i);
+        }
+        reopened.put("sha5", "content 5");
+        assertThat(reopened.get("sha5")).contains("content 5");
+        assertThat(reopened.get("sha0")).contains("content 0");
+    }
+
+    @Test
+    void ignoresATruncatedRecordOnRestart() throws IOException {
+        BlobCache cache = open(1024 * 1024, 4096);
+        cache.put("a", "complete");
+        cache.put("b", "cut short");
+        cache.close();
+
+        Path segment = segmentFiles().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        Files.write(segment, Arrays.copyOf(bytes, bytes.length - 3));
+
+        BlobCache reopened = open(1024 * 1024, 4096);
+        assertThat(reopened.get("a")).contains("complete");
+        assertThat(reopened.contains("b")).isFalse();
+
+        reopened.put("c", "appended");
+        assertThat(reopened.get("c")).contains("appended");
+        assertThat(reopened.get("a")).contains("complete");
+    }
+
+    @Test
+    void computesGitBlobShas() {
+        // git hash-object of a file containing "hello\n"
+        assertThat(BlobCache.gitBlobSha("hello\n".getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo("ce013625030ba8dba906f756967f9e9ca394464a");
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        BlobCache cache = new BlobCache(directory.toString(), false, 1024, 256, new SimpleMeterRegistry());
+
+        cache.put("a", "content");
+
+        assertThat(cache.get("a")).isEmpty();
+        assertThat(directory.toFile().list()).isEmpty();
+    }
+
+    private BlobCache open(long maxBytes, int segmentBytes) {
+        BlobCache cache = new BlobCache(directory.toString(), true, maxBytes, segmentBytes, new SimpleMeterRegistry());
+        opened.add(cache);
+        return cache;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".blob")).sorted().toList();
+        }
+    }
+}
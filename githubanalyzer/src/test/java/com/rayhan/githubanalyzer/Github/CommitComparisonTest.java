@@ -0,0 +1,84 @@
+package com.rayhan.githubanalyzer.Github;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommitComparisonTest {
+
+    @Test
+    void keepsOnlyFilesAFullCrawlWouldRead() {
+        CommitComparison comparison = comparison("ahead",
+                file("src/Main.java", "modified", null),
+                file("docs/diagram.png", "added", null),
+                file("README.md", "modified", null),
+                file("pom.xml", "modified", null),
+                file("src/Old.java", "removed", null),
+                file("src/Same.java", "unchanged", null));
+
+        assertThat(comparison.getAnalyzableFiles()).extracting(ChangedFile::getFilename)
+                .containsExactly("src/Main.java", "pom.xml", "src/Old.java");
+    }
+
+    @Test
+    void countsRenamesWhenEitherNameIsAnalyzable() {
+        CommitComparison comparison = comparison("ahead",
+                file("src/Renamed.java", "renamed", "src/Original.java"),
+                file("notes/todo.txt", "renamed", "src/Todo.java"),
+                file("src/app.py", "renamed", "notes/app.txt"),
+                file("assets/b.png", "renamed", "assets/a.png"));
+
+        assertThat(comparison.getAnalyzableFiles()).extracting(ChangedFile::getFilename)
+                .containsExactly("src/Renamed.java", "notes/todo.txt", "src/app.py");
+    }
+
+    @Test
+    void isOnlyAFastForwardWhenHeadIsAheadOrIdentical() {
+        assertThat(comparison("ahead").isFastForward()).isTrue();
+        assertThat(comparison("identical").isFastForward()).isTrue();
+        assertThat(comparison("diverged").isFastForward()).isFalse();
+        assertThat(comparison("behind").isFastForward()).isFalse();
+        assertThat(comparison(null).isFastForward()).isFalse();
+    }
+
+    @Test
+    void isIncompleteWhenGithubListedTheMaximumNumberOfFiles() {
+        List<ChangedFile> files = new ArrayList<>();
+        for (int i = 0; i < CommitComparison.MAX_LISTED_FILES - 1; i++) {
+            files.add(file("src/File" + i + ".java", "modified", null));
+        }
+        CommitComparison comparison = comparison("ahead", files.toArray(ChangedFile[]::new));
+        assertThat(comparison.isComplete()).isTrue();
+
+        files.add(file("src/Last.java", "modified", null));
+        comparison.setFiles(files);
+        assertThat(comparison.isComplete()).isFalse();
+    }
+
+    @Test
+    void treatsMissingFilesAsNoChanges() {
+        CommitComparison comparison = comparison("identical");
+        comparison.setFiles(null);
+
+        assertThat(comparison.getAnalyzableFiles()).isEmpty();
+        assertThat(comparison.isComplete()).isTrue();
+    }
+
+    private static CommitComparison comparison(String status, ChangedFile... files) {
+        CommitComparison comparison = new CommitComparison();
+        comparison.setStatus(status);
+        comparison.setFiles(new ArrayList<>(List.of(files)));
+        return comparison;
+    }
+
+    private static ChangedFile file(String filename, String status, String previousFilename) {
+        ChangedFile file = new ChangedFile();
+        file.setFilename(filename);
+        file.setStatus(status);
+        file.setPrevious_filename(previousFilename);
+        return file;
+    }
+}
@@ -0,0 +1,176 @@
+package com.rayhan.githubanalyzer.Github;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GithubRateLimiterTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void readsRetryAfterInSeconds() {
+        assertThat(GithubRateLimiter.retryAfterMillis("120", NOW)).isEqualTo(120_000);
+        assertThat(GithubRateLimiter.retryAfterMillis(" 0 ", NOW)).isZero();
+    }
+
+    @Test
+    void readsRetryAfterAsAnHttpDate() {
+        String inNinetySeconds = DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(NOW + 90_000), ZoneOffset.UTC));
+
+        assertThat(GithubRateLimiter.retryAfterMillis(inNinetySeconds, NOW)).isEqualTo(90_000);
+        assertThat(GithubRateLimiter.retryAfterMillis("Wed, 21 Oct 2015 07:28:00 GMT", NOW)).isZero();
+    }
+
+    @Test
+    void ignoresRetryAfterItCannotParse() {
+        assertThat(GithubRateLimiter.retryAfterMillis(null, NOW)).isEqualTo(-1);
+        assertThat(GithubRateLimiter.retryAfterMillis("", NOW)).isEqualTo(-1);
+        assertThat(GithubRateLimiter.retryAfterMillis("soon", NOW)).isEqualTo(-1);
+        assertThat(GithubRateLimiter.retryAfterMillis("-5", NOW)).isEqualTo(-1);
+    }
+
+    @Test
+    void tracksTheReportedBudget() {
+        GithubRateLimiter limiter = limiter(0, 0, 0);
+
+        limiter.filter(request(GithubRateLimiter.Priority.INTERACTIVE), respond(ok(4321, inOneHour()))).block();
+
+        assertThat(limiter.getLowestRemaining()).isEqualTo(4321);
+    }
+
+    @Test
+    void passesResponsesWithMalformedHeadersThrough() {
+        GithubRateLimiter limiter = limiter(0, 0, 0);
+        ClientResponse malformed = ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                .header("X-RateLimit-Remaining", "lots")
+                .header("X-RateLimit-Reset", "later")
+                .header("Retry-After", "in a bit")
+                .build();
+
+        ClientResponse response = limiter.filter(request(GithubRateLimiter.Priority.INTERACTIVE), respond(malformed)).block();
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(limiter.getLowestRemaining()).isEqualTo(-1);
+    }
+
+    @Test
+    void retriesAfterASecondaryLimit() {
+        GithubRateLimiter limiter = limiter(0, 0, 2);
+        ClientResponse limited = ClientResponse.create(HttpStatus.FORBIDDEN)
+                .header("Retry-After", "Wed, 21 Oct 2015 07:28:00 GMT")
+                .build();
+        AtomicInteger calls = new AtomicInteger();
+
+        ClientResponse response = limiter.filter(request(GithubRateLimiter.Priority.INTERACTIVE),
+                respond(calls, limited, ok(100, inOneHour()))).block(Duration.ofSeconds(5));
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void holdsBulkRequestsBackForInteractiveOnes() {
+        GithubRateLimiter limiter = limiter(10, 0, 0);
+        limiter.filter(request(GithubRateLimiter.Priority.INTERACTIVE), respond(ok(5, inOneHour()))).block();
+
+        AtomicInteger bulkCalls = new AtomicInteger();
+        Disposable bulk = limiter.filter(request(GithubRateLimiter.Priority.BULK), respond(bulkCalls, ok(4, inOneHour())))
+                .subscribe();
+
+        assertThat(bulkCalls).hasValue(0);
+        assertThat(limiter.getQueueDepth()).isEqualTo(1);
+
+        ClientResponse interactive = limiter.filter(request(GithubRateLimiter.Priority.INTERACTIVE), respond(ok(4, inOneHour())))
+                .block(Duration.ofSeconds(5));
+        assertThat(interactive.statusCode()).isEqualTo(HttpStatus.OK);
+
+        bulk.dispose();
+        assertThat(limiter.getQueueDepth()).isZero();
+        assertThat(bulkCalls).hasValue(0);
+    }
+
+    @Test
+    void doesNotHoldSpacedInteractiveRequestsUntilABulkRequestsReset() {
+        // Bulk waits for the reset an hour away, interactive requests are spaced 180ms apart
+        GithubRateLimiter limiter = limiter(30_000, 100_000, 0);
+        limiter.filter(request(GithubRateLimiter.Priority.INTERACTIVE), respond(ok(20_000, inOneHour()))).block();
+        Disposable bulk = limiter.filter(request(GithubRateLimiter.Priority.BULK), respond(ok(19_999, inOneHour())))
+                .subscribe();
+        limiter.filter(request(GithubRateLimiter.Priority.INTERACTIVE), respond(ok(19_999, inOneHour())))
+                .block(Duration.ofSeconds(5));
+
+        AtomicInteger spacedCalls = new AtomicInteger();
+        ClientResponse spaced = limiter.filter(request(GithubRateLimiter.Priority.INTERACTIVE),
+                respond(spacedCalls, ok(19_998, inOneHour()))).block(Duration.ofSeconds(5));
+
+        assertThat(spaced.statusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(spacedCalls).hasValue(1);
+        assertThat(limiter.getQueueDepth()).isEqualTo(1);
+        bulk.dispose();
+    }
+
+    @Test
+    void leavesOtherHostsAlone() {
+        GithubRateLimiter limiter = limiter(10, 0, 0);
+        limiter.filter(request(GithubRateLimiter.Priority.INTERACTIVE), respond(ok(0, inOneHour()))).block();
+
+        ClientRequest raw = ClientRequest.create(HttpMethod.GET, URI.create("https://raw.githubusercontent.com/o/r/main/A.java")).build();
+        ClientResponse response = limiter.filter(raw, respond(ok(0, inOneHour()))).block(Duration.ofSeconds(5));
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private static GithubRateLimiter limiter(int interactiveReserve, int smoothingThreshold, int maxRetries) {
+        return new GithubRateLimiter(interactiveReserve, smoothingThreshold, maxRetries, new SimpleMeterRegistry());
+    }
+
+    private static ClientRequest request(GithubRateLimiter.Priority priority) {
+        return ClientRequest.create(HttpMethod.GET, URI.create("https://api.github.com/users/octocat"))
+                .attribute(GithubRateLimiter.PRIORITY_ATTRIBUTE, priority)
+                .build();
+    }
+
+    private static ClientResponse ok(int remaining, long resetEpochSeconds) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header("X-RateLimit-Remaining", Integer.toString(remaining))
+                .header("X-RateLimit-Reset", Long.toString(resetEpochSeconds))
+                .build();
+    }
+
+    private static long inOneHour() {
+        return System.currentTimeMillis() / 1000 + 3600;
+    }
+
+    private static ExchangeFunction respond(ClientResponse response) {
+        return request -> Mono.just(response);
+    }
+
+    private static ExchangeFunction respond(AtomicInteger calls, ClientResponse... responses) {
+        Deque<ClientResponse> remaining = new ArrayDeque<>(List.of(responses));
+        return request -> Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            return remaining.size() > 1 ? remaining.poll() : remaining.peek();
+        });
+    }
+}
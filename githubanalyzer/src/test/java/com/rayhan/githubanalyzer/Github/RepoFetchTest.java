@@ -0,0 +1,27 @@
+package com.rayhan.githubanalyzer.Github;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepoFetchTest {
+
+    @Test
+    void isFailedEvenWithoutAnErrorMessage() {
+        RepoFetch fetch = RepoFetch.failed("octocat", "app", null, 12);
+
+        assertThat(fetch.isSucceeded()).isFalse();
+        assertThat(fetch.getContents()).isEmpty();
+    }
+
+    @Test
+    void isSucceededWithTheFetchedFiles() {
+        RepoFetch fetch = RepoFetch.succeeded("octocat", "app", Map.of("App.java", "class App {}"), 12);
+
+        assertThat(fetch.isSucceeded()).isTrue();
+        assertThat(fetch.getError()).isNull();
+        assertThat(fetch.getContents()).containsOnlyKeys("App.java");
+    }
+}
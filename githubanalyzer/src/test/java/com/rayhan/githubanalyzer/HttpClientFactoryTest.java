@@ -0,0 +1,63 @@
+package com.rayhan.githubanalyzer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpClientFactoryTest {
+
+    private final MockEnvironment environment = new MockEnvironment();
+    private final HttpClientFactory factory = new HttpClientFactory(environment);
+
+    @AfterEach
+    void close() {
+        factory.close();
+    }
+
+    @Test
+    void negotiatesHttp2OverTlsForHttpsUpstreams() {
+        HttpClient client = factory.httpClient("github", "https://api.github.com");
+
+        assertThat(client.configuration().protocols()).containsExactlyInAnyOrder(HttpProtocol.H2, HttpProtocol.HTTP11);
+        assertThat(client.configuration().isSecure()).isTrue();
+    }
+
+    @Test
+    void speaksPlainHttp11ToHttpUpstreams() {
+        HttpClient client = factory.httpClient("github", "http://localhost:8089");
+
+        assertThat(client.configuration().protocols()).containsExactly(HttpProtocol.HTTP11);
+        assertThat(client.configuration().isSecure()).isFalse();
+    }
+
+    @Test
+    void canTurnHttp2Off() {
+        environment.setProperty("http.clients.gemini.http2", "false");
+
+        HttpClient client = factory.httpClient("gemini", "https://generativelanguage.googleapis.com/v1beta/models/");
+
+        assertThat(client.configuration().protocols()).containsExactly(HttpProtocol.HTTP11);
+    }
+
+    @Test
+    void tagsGithubRequestsWithTheirRoute() {
+        assertThat(HttpClientFactory.uriTemplate("/repos/octocat/hello-world/git/trees/main?recursive=1"))
+                .isEqualTo("/repos/{owner}/{repo}/git");
+        assertThat(HttpClientFactory.uriTemplate("https://api.github.com/repos/octocat/hello-world"))
+                .isEqualTo("/repos/{owner}/{repo}");
+        assertThat(HttpClientFactory.uriTemplate("/users/octocat/repos?per_page=100&page=3")).isEqualTo("/users/{user}/repos");
+    }
+
+    @Test
+    void keepsGeminiModelPathsAndCollapsesEverythingElse() {
+        assertThat(HttpClientFactory.uriTemplate("/v1beta/models/gemini-2.0-flash:generateContent?key=secret"))
+                .isEqualTo("/v1beta/models/gemini-2.0-flash:generateContent");
+        assertThat(HttpClientFactory.uriTemplate("https://raw.githubusercontent.com/octocat/app/main/src/App.java")).isEqualTo("/");
+        assertThat(HttpClientFactory.uriTemplate("https://codeload.github.com/octocat/app/legacy.zip/refs/heads/main")).isEqualTo("/");
+        assertThat(HttpClientFactory.uriTemplate("")).isEqualTo("/");
+    }
+}
@@ -0,0 +1,120 @@
+package com.rayhan.githubanalyzer;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyedConcurrencyTest {
+
+    // Tasks started so far, completed by the test, with the running counts and the highest seen overall and per key
+    private final Map<String, Sinks.One<String>> inFlight = new LinkedHashMap<>();
+    private final Map<String, Integer> running = new HashMap<>();
+    private final Map<String, Integer> maxPerKey = new HashMap<>();
+    private int maxTotal;
+
+    @Test
+    void appliesTheOverallAndThePerKeyLimitSeparately() {
+        Map<String, List<Integer>> tasks = new LinkedHashMap<>();
+        tasks.put("a", List.of(1, 2, 3, 4, 5, 6));
+        tasks.put("b", List.of(1));
+        tasks.put("c", List.of(1));
+        List<String> results = new ArrayList<>();
+
+        KeyedConcurrency.flatMap(tasks, this::task, 4, 2).subscribe(results::add);
+
+        // A key at its cap does not keep the other keys waiting while overall slots are free
+        assertThat(inFlight.keySet()).containsExactly("a1", "a2", "b1", "c1");
+
+        completeAll();
+        assertThat(results).hasSize(8);
+        assertThat(maxTotal).isEqualTo(4);
+        assertThat(maxPerKey).containsEntry("a", 2).containsEntry("b", 1).containsEntry("c", 1);
+    }
+
+    @Test
+    void startsTheTasksOfAKeyInOrder() {
+        List<String> results = new ArrayList<>();
+
+        KeyedConcurrency.flatMap(Map.of("a", List.of(1, 2, 3)), this::task, 8, 1).subscribe(results::add);
+        completeAll();
+
+        assertThat(results).containsExactly("a1", "a2", "a3");
+        assertThat(maxTotal).isEqualTo(1);
+    }
+
+    @Test
+    void completesOnceEveryTaskFinished() {
+        Map<String, List<Integer>> tasks = Map.of("a", IntStream.rangeClosed(1, 5000).boxed().toList(), "b", List.of());
+
+        // Synchronous tasks must not recurse once per task
+        List<Integer> results = KeyedConcurrency.flatMap(tasks, (key, task) -> Mono.just(task), 3, 2)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(results).hasSize(5000);
+        assertThat(KeyedConcurrency.flatMap(Map.of(), (key, task) -> Mono.just(task), 3, 2).collectList().block())
+                .isEmpty();
+    }
+
+    @Test
+    void anErrorCancelsTheOtherTasks() {
+        Sinks.One<String> slow = Sinks.one();
+        Map<String, List<Integer>> tasks = new LinkedHashMap<>();
+        tasks.put("slow", List.of(1));
+        tasks.put("failing", List.of(1));
+
+        Flux<String> results = KeyedConcurrency.flatMap(tasks, (key, task) -> key.equals("slow")
+                ? slow.asMono()
+                : Mono.error(new IllegalStateException("boom")), 4, 4);
+
+        assertThatThrownBy(() -> results.blockLast(Duration.ofSeconds(5))).hasMessage("boom");
+        assertThat(slow.currentSubscriberCount()).isZero();
+    }
+
+    @Test
+    void cancellingStopsStartingTasks() {
+        Disposable subscription = KeyedConcurrency.flatMap(Map.of("a", List.of(1, 2, 3)), this::task, 1, 1).subscribe();
+        Sinks.One<String> first = inFlight.get("a1");
+
+        subscription.dispose();
+        first.tryEmitValue("a1");
+
+        assertThat(inFlight).containsOnlyKeys("a1");
+        assertThat(first.currentSubscriberCount()).isZero();
+    }
+
+    private Mono<String> task(String key, int task) {
+        String id = key + task;
+        Sinks.One<String> result = Sinks.one();
+        inFlight.put(id, result);
+        running.merge(key, 1, Integer::sum);
+        maxTotal = Math.max(maxTotal, running.values().stream().mapToInt(Integer::intValue).sum());
+        maxPerKey.merge(key, running.get(key), Math::max);
+        return result.asMono();
+    }
+
+    private void completeAll() {
+        // Completing a task starts the next ones, keep going until nothing new started
+        Set<String> completed = new HashSet<>();
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (Map.Entry<String, Sinks.One<String>> task : List.copyOf(inFlight.entrySet())) {
+                if (completed.add(task.getKey())) {
+                    running.merge(task.getKey().substring(0, 1), -1, Integer::sum);
+                    task.getValue().tryEmitValue(task.getKey());
+                    progress = true;
+                }
+            }
+        }
+    }
+}
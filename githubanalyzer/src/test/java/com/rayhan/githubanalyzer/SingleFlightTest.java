@@ -0,0 +1,180 @@
+package com.rayhan.githubanalyzer;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneUpstream() throws InterruptedException {
+        Sinks.One<String> result = Sinks.one();
+        int callers = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        List<String> values = new CopyOnWriteArrayList<>();
+        CountDownLatch joined = new CountDownLatch(callers);
+        CountDownLatch done = new CountDownLatch(callers);
+
+        for (int i = 0; i < callers; i++) {
+            Schedulers.parallel().schedule(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                flights.execute("key", () -> counted(result.asMono()))
+                        .doOnSubscribe(subscription -> joined.countDown())
+                        .doFinally(signal -> done.countDown())
+                        .subscribe(values::add);
+            });
+        }
+        start.countDown();
+        // Every caller joins before the upstream answers
+        assertThat(joined.await(5, TimeUnit.SECONDS)).isTrue();
+        result.tryEmitValue("value");
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(values).hasSize(callers).containsOnly("value");
+        assertThat(subscriptions).hasValue(1);
+        assertThat(flights.size()).isZero();
+    }
+
+    @Test
+    void callerJoiningBetweenValueAndCompletionGetsTheValue() {
+        AtomicReference<String> joined = new AtomicReference<>();
+
+        String first = flights.execute("key", () -> counted(Mono.just("value")))
+                // The upstream has produced its value but not yet completed
+                .doOnNext(value -> flights.execute("key", () -> counted(Mono.just("second request")))
+                        .subscribe(joined::set))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(first).isEqualTo("value");
+        assertThat(joined).hasValue("value");
+        assertThat(subscriptions).hasValue(1);
+    }
+
+    @Test
+    void callerJoiningAfterTerminationBeforeReleaseDoesNotStartAnotherRequest() {
+        AtomicReference<String> joined = new AtomicReference<>();
+
+        flights.execute("key", () -> counted(Mono.just("value")))
+                .then()
+                // Completion has reached this subscriber, the key is only released after it returns
+                .doOnTerminate(() -> flights.execute("key", () -> counted(Mono.just("second request")))
+                        .subscribe(joined::set))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(joined).hasValue("value");
+        assertThat(subscriptions).hasValue(1);
+    }
+
+    @Test
+    void releasesTheKeyOnceTheUpstreamTerminates() {
+        assertThat(flights.execute("key", () -> counted(Mono.just("first"))).block()).isEqualTo("first");
+        assertThat(flights.size()).isZero();
+
+        assertThat(flights.execute("key", () -> counted(Mono.just("second"))).block()).isEqualTo("second");
+        assertThat(subscriptions).hasValue(2);
+    }
+
+    @Test
+    void sharesEmptyResults() {
+        Sinks.One<String> result = Sinks.one();
+        Mono<String> first = flights.execute("key", () -> counted(result.asMono()));
+        Mono<String> second = flights.execute("key", () -> counted(Mono.just("unused")));
+
+        Flux<String> both = Flux.merge(first, second).cache();
+        both.subscribe();
+        result.tryEmitEmpty();
+
+        assertThat(both.collectList().block(Duration.ofSeconds(5))).isEmpty();
+        assertThat(subscriptions).hasValue(1);
+    }
+
+    @Test
+    void sharesErrorsAndReleasesTheKey() {
+        Sinks.One<String> result = Sinks.one();
+        Mono<String> first = flights.execute("key", () -> counted(result.asMono()));
+        Mono<String> second = flights.execute("key", () -> counted(Mono.just("unused")));
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        AtomicReference<Throwable> secondError = new AtomicReference<>();
+
+        first.subscribe(value -> { }, firstError::set);
+        second.subscribe(value -> { }, secondError::set);
+        result.tryEmitError(new IllegalStateException("boom"));
+
+        assertThat(firstError.get()).hasMessage("boom");
+        assertThat(secondError.get()).hasMessage("boom");
+        assertThat(subscriptions).hasValue(1);
+        assertThat(flights.size()).isZero();
+        assertThatThrownBy(() -> first.block()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void cancellingOneCallerDoesNotCancelTheOthers() {
+        Sinks.One<String> result = Sinks.one();
+        AtomicReference<String> remaining = new AtomicReference<>();
+
+        Disposable cancelled = flights.execute("key", () -> counted(result.asMono())).subscribe();
+        flights.execute("key", () -> counted(Mono.just("unused"))).subscribe(remaining::set);
+        cancelled.dispose();
+        result.tryEmitValue("value");
+
+        assertThat(remaining).hasValue("value");
+        assertThat(subscriptions).hasValue(1);
+        assertThat(flights.size()).isZero();
+    }
+
+    @Test
+    void cancelsTheUpstreamOnceEveryCallerCancelled() {
+        Sinks.One<String> result = Sinks.one();
+        AtomicInteger upstreamCancels = new AtomicInteger();
+
+        Disposable first = flights.execute("key", () -> counted(result.asMono().doOnCancel(upstreamCancels::incrementAndGet)))
+                .subscribe();
+        Disposable second = flights.execute("key", () -> counted(Mono.just("unused"))).subscribe();
+        first.dispose();
+        assertThat(upstreamCancels).hasValue(0);
+        second.dispose();
+
+        assertThat(upstreamCancels).hasValue(1);
+        assertThat(result.currentSubscriberCount()).isZero();
+        assertThat(flights.size()).isZero();
+        assertThat(flights.execute("key", () -> counted(Mono.just("fresh"))).block()).isEqualTo("fresh");
+        assertThat(subscriptions).hasValue(2);
+    }
+
+    @Test
+    void keysAreIndependent() {
+        Sinks.One<String> slow = Sinks.one();
+        flights.execute("slow", () -> counted(slow.asMono())).subscribe();
+
+        assertThat(flights.execute("fast", () -> counted(Mono.just("fast"))).block()).isEqualTo("fast");
+        assertThat(flights.size()).isEqualTo(1);
+
+        slow.tryEmitValue("slow");
+        assertThat(flights.size()).isZero();
+    }
+
+    private Mono<String> counted(Mono<String> upstream) {
+        return upstream.doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+    }
+}
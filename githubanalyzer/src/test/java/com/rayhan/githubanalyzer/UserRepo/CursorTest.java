@@ -0,0 +1,49 @@
+package com.rayhan.githubanalyzer.UserRepo;
+
+import com.rayhan.githubanalyzer.UserRepo.UserRepoService.Cursor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTest {
+
+    @Test
+    void roundTrips() {
+        Cursor cursor = new Cursor("githubanalyzer", 123456789L);
+
+        assertThat(Cursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsNamesWithSeparatorsAndNonAsciiCharacters() {
+        for (String name : new String[]{"a:b:c", "", "dots.and-dashes_", "résumé-日本語", "ends-with:"}) {
+            Cursor cursor = new Cursor(name, 42L);
+            assertThat(Cursor.decode(cursor.encode())).as(name).isEqualTo(cursor);
+        }
+    }
+
+    @Test
+    void encodesUrlSafelyWithoutPadding() {
+        String encoded = new Cursor("??>>~~", Long.MAX_VALUE).encode();
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String cursor : new String[]{"not base64!", encode("no-separator"), encode("abc:name"), encode(":name")}) {
+            assertThatThrownBy(() -> Cursor.decode(cursor))
+                    .as(cursor)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid page cursor: " + cursor);
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}